@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.jenkinsci.plugins.badge.action.AbstractBadgeAction;
+import com.thoughtworks.xstream.converters.basic.AbstractSingleValueConverter;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.util.XStream2;
+import io.jenkins.plugins.ionicons.Ionicons;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shares identical icon and style strings between {@link AbstractBadgeAction}s.
+ *
+ * Most badges use one of a handful of icons and styles, so every build holding its own copy of them
+ * wastes heap on controllers with many loaded builds.
+ * Values are interned both when {@link GroovyPostbuildRecorder.BadgeManager} creates a badge
+ * and when XStream reads one back from {@code build.xml}.
+ */
+/*package*/ final class BadgeFlyweights {
+    private static final Interner<String> STRINGS = Interners.newWeakInterner();
+
+    static final String INFO_ICON = intern(Ionicons.getIconClassName("information-circle"));
+    static final String WARNING_ICON = intern(Ionicons.getIconClassName("warning"));
+    static final String ERROR_ICON = intern(Ionicons.getIconClassName("remove-circle"));
+
+    static final String INFO_STYLE = intern("color: var(--blue)");
+    static final String WARNING_STYLE = intern("color: var(--warning-color)");
+    static final String ERROR_STYLE = intern("color: var(--error-color)");
+
+    /**
+     * Styles built by {@link #shortTextStyle(String, String, String, String)}, keyed by their arguments.
+     */
+    private static final LoadingCache<List<String>, String> SHORT_TEXT_STYLES = CacheBuilder.newBuilder()
+            .maximumSize(256)
+            .build(new CacheLoader<List<String>, String>() {
+                @Override
+                public String load(List<String> key) {
+                    return intern(buildShortTextStyle(key.get(0), key.get(1), key.get(2), key.get(3)));
+                }
+            });
+
+    private BadgeFlyweights() {}
+
+    /**
+     * @param value a string, may be null
+     * @return the shared instance equal to value
+     */
+    static String intern(@CheckForNull String value) {
+        return value != null ? STRINGS.intern(value) : null;
+    }
+
+    /**
+     * Translates the legacy short text styling arguments to a CSS style.
+     *
+     * @return the shared style instance for the given arguments
+     */
+    static String shortTextStyle(String color, String background, String border, String borderColor) {
+        return SHORT_TEXT_STYLES.getUnchecked(Arrays.asList(color, background, border, borderColor));
+    }
+
+    private static String buildShortTextStyle(String color, String background, String border, String borderColor) {
+        String style = "border: " + (border != null ? border : "") + " solid "
+                + (borderColor != null ? borderColor : "") + ";";
+        if (background != null) {
+            style += "background: " + background + ";";
+        }
+        if (color != null) {
+            if (color.startsWith("jenkins-!-color")) {
+                style += "color: var(--" + color.replaceFirst("jenkins-!-color", "") + ");";
+            } else if (color.startsWith("jenkins-!-")) {
+                style += "color: var(--" + color.replaceFirst("jenkins-!-", "") + ");";
+            } else {
+                style += "color: " + color + ";";
+            }
+        }
+        return style;
+    }
+
+    /**
+     * Makes badges read from {@code build.xml} share their icon and style strings.
+     */
+    static void registerConverters(XStream2 xstream) {
+        InterningConverter converter = new InterningConverter();
+        for (String field : new String[] {"icon", "cssClass", "style"}) {
+            xstream.registerLocalConverter(AbstractBadgeAction.class, field, converter);
+        }
+    }
+
+    private static final class InterningConverter extends AbstractSingleValueConverter {
+        @Override
+        public boolean canConvert(Class type) {
+            return type == String.class;
+        }
+
+        @Override
+        public Object fromString(String str) {
+            return intern(str);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Util;
+import hudson.markup.EscapedMarkupFormatter;
+import hudson.markup.MarkupFormatter;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+
+/**
+ * Sanitizes the HTML of badges and summaries when they are created.
+ *
+ * The text is replaced by its translation by the configured markup formatter,
+ * so the stored form is safe whatever formatter renders it later.
+ * Rendering by the badge plugin still translates the stored form, so the text is kept as is when its translation
+ * would change once more, as a formatter is not always idempotent.
+ * Scripts tend to add the same short HTML to each build, so translations of up to {@link #MAX_CACHED_LENGTH}
+ * characters are cached and shared, within {@link #MAX_CACHE_CHARACTERS} characters overall.
+ */
+/*package*/ final class BadgeHtml {
+    private static final Logger LOGGER = Logger.getLogger(BadgeHtml.class.getName());
+
+    /**
+     * Longer HTML, like large summaries, is translated each time, as it is rarely added twice.
+     */
+    static /* non-final for script console */ int MAX_CACHED_LENGTH =
+            SystemProperties.getInteger(BadgeHtml.class.getName() + ".maxCachedLength", 4 * 1024);
+
+    /**
+     * Characters of HTML and translations cached in all.
+     */
+    private static final long MAX_CACHE_CHARACTERS =
+            SystemProperties.getLong(BadgeHtml.class.getName() + ".maxCacheCharacters", 1024L * 1024);
+
+    /**
+     * Translations by the formatter configured last.
+     */
+    private static volatile Translations translations;
+
+    private BadgeHtml() {}
+
+    /**
+     * @return the HTML as the configured markup formatter renders it, or the text itself if that formatter
+     *     escapes HTML or renders its translation differently, as rendering translates it then
+     */
+    static String sanitize(@CheckForNull String html) {
+        if (html == null || html.isEmpty()) {
+            return html;
+        }
+        MarkupFormatter formatter = Jenkins.get().getMarkupFormatter();
+        if (formatter instanceof EscapedMarkupFormatter) {
+            return html;
+        }
+        Translations t = translations;
+        if (t == null || t.formatter != formatter) {
+            t = new Translations(formatter);
+            translations = t;
+        }
+        try {
+            if (html.length() > MAX_CACHED_LENGTH) {
+                return translate(formatter, html);
+            }
+            return t.cache.get(html, () -> BadgeFlyweights.intern(translate(formatter, html)));
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to sanitize a badge, escaping it", e);
+            return Util.escape(html);
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.WARNING, "Failed to sanitize a badge, escaping it", e.getCause());
+            return Util.escape(html);
+        }
+    }
+
+    private static String translate(MarkupFormatter formatter, String html) throws IOException {
+        String translated = formatter.translate(html);
+        if (translated == null || !translated.equals(formatter.translate(translated))) {
+            return html;
+        }
+        return translated;
+    }
+
+    private static final class Translations {
+        private final MarkupFormatter formatter;
+        private final Cache<String, String> cache = CacheBuilder.newBuilder()
+                .maximumWeight(MAX_CACHE_CHARACTERS)
+                .weigher((String html, String translation) -> html.length() + translation.length())
+                .build();
+
+        Translations(MarkupFormatter formatter) {
+            this.formatter = formatter;
+        }
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.hash.Hashing;
+import com.jenkinsci.plugins.badge.action.BadgeAction;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Computer;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.Saveable;
+import hudson.model.listeners.RunListener;
+import hudson.model.listeners.SaveableListener;
+import hudson.util.XStream2;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records the badges of the builds of a job, so badges can be searched without loading the builds.
+ *
+ * Each job has one small file next to its builds, holding for each badge the build number, icon, link,
+ * and a hash of the text rather than the text itself.
+ * Builds are updated each time they are saved with other badges, and removed when they are deleted,
+ * by appending a line to a journal next to that file, which is merged into it once it gets as long as the index.
+ * Builds run before the index existed are added once in the background, and the index tells whether that is done.
+ * Public for its {@link Extension}s only.
+ */
+public final class BadgeIndex {
+    private static final Logger LOGGER = Logger.getLogger(BadgeIndex.class.getName());
+
+    static final String FILE_NAME = "groovy-postbuild-badges.xml";
+
+    static final String JOURNAL_NAME = "groovy-postbuild-badges.log";
+
+    /**
+     * The journal is always allowed this many lines, whatever the size of the index.
+     */
+    private static final int MIN_JOURNAL_LINES = 64;
+
+    /**
+     * Stands for a null icon or link in the journal, as URL encoding never produces it.
+     */
+    private static final String NULL = "!";
+
+    private static final XStream2 XSTREAM = new XStream2();
+
+    static {
+        XSTREAM.alias("badgeIndex", BadgeIndex.class);
+        XSTREAM.alias("badge", Entry.class);
+    }
+
+    private static final LoadingCache<Job<?, ?>, BadgeIndex> INDEXES = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(new CacheLoader<Job<?, ?>, BadgeIndex>() {
+                @Override
+                public BadgeIndex load(Job<?, ?> job) {
+                    return read(job);
+                }
+            });
+
+    /** Badges of each build having some, in the order of the build actions. */
+    private TreeMap<Integer, List<Entry>> builds = new TreeMap<Integer, List<Entry>>();
+
+    /** Whether the builds run before the index existed were added. */
+    private boolean complete;
+
+    /** Lines of the journal, not yet merged into the file. */
+    private transient int journalLines;
+
+    private transient boolean backfilling;
+
+    private BadgeIndex() {}
+
+    private Object readResolve() {
+        if (builds == null) {
+            builds = new TreeMap<Integer, List<Entry>>();
+        }
+        return this;
+    }
+
+    /**
+     * @return the index of the job, loaded once, and adding the older builds of the job in the background
+     *     unless that was done
+     */
+    @NonNull
+    static BadgeIndex of(@NonNull Job<?, ?> job) {
+        BadgeIndex index = INDEXES.getUnchecked(job);
+        index.backfill(job);
+        return index;
+    }
+
+    private static boolean exists(Job<?, ?> job) {
+        return INDEXES.getIfPresent(job) != null
+                || fileOf(job).exists()
+                || journalOf(job).exists();
+    }
+
+    /**
+     * @return the file of the index, resolved each time as the job may have been renamed or moved since it was read
+     */
+    private static XmlFile fileOf(Job<?, ?> job) {
+        return new XmlFile(XSTREAM, new File(job.getRootDir(), FILE_NAME));
+    }
+
+    private static File journalOf(Job<?, ?> job) {
+        return new File(job.getRootDir(), JOURNAL_NAME);
+    }
+
+    /**
+     * @return the index of the job as stored, with its journal applied
+     */
+    @NonNull
+    static BadgeIndex read(@NonNull Job<?, ?> job) {
+        XmlFile file = fileOf(job);
+        BadgeIndex index = null;
+        if (file.exists()) {
+            try {
+                index = (BadgeIndex) file.read();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Failed to read " + file + ", builds will be indexed again", e);
+            }
+        }
+        if (index == null) {
+            index = new BadgeIndex();
+        }
+        index.replay(journalOf(job));
+        return index;
+    }
+
+    private void replay(File journal) {
+        if (!journal.exists()) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(journal.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(" ", -1);
+                int number = Integer.parseInt(fields[0]);
+                List<Entry> entries = new ArrayList<Entry>();
+                for (int i = 1; i + 2 < fields.length; i += 3) {
+                    entries.add(
+                            new Entry(number, decode(fields[i]), Long.parseLong(fields[i + 1]), decode(fields[i + 2])));
+                }
+                put(number, entries);
+                journalLines++;
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to read " + journal + ", builds will be indexed again", e);
+            complete = false;
+        }
+    }
+
+    private static String encode(@CheckForNull String value) {
+        return value != null ? URLEncoder.encode(value, StandardCharsets.UTF_8) : NULL;
+    }
+
+    @CheckForNull
+    private static String decode(String value) {
+        return value.equals(NULL) ? null : URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the hash stored for a badge text
+     */
+    static long hash(@CheckForNull String text) {
+        return Hashing.murmur3_128()
+                .hashString(text != null ? text : "", StandardCharsets.UTF_8)
+                .asLong();
+    }
+
+    private static List<Entry> entriesOf(Run<?, ?> run) {
+        List<Entry> entries = new ArrayList<Entry>();
+        for (BadgeAction action : run.getActions(BadgeAction.class)) {
+            entries.add(new Entry(run.getNumber(), action.getIcon(), hash(action.getText()), action.getLink()));
+        }
+        return entries;
+    }
+
+    private void put(int number, List<Entry> entries) {
+        if (entries.isEmpty()) {
+            builds.remove(number);
+        } else {
+            builds.put(number, entries);
+        }
+    }
+
+    /**
+     * Replaces the badges recorded for a build with its current badges, writing the index only if they changed.
+     */
+    synchronized void record(@NonNull Run<?, ?> run) throws IOException {
+        List<Entry> current = entriesOf(run);
+        if (current.equals(get(run.getNumber()))) {
+            return;
+        }
+        put(run.getNumber(), current);
+        write(run.getParent(), run.getNumber(), current);
+    }
+
+    synchronized void remove(@NonNull Run<?, ?> run) throws IOException {
+        if (builds.remove(run.getNumber()) != null) {
+            write(run.getParent(), run.getNumber(), Collections.<Entry>emptyList());
+        }
+    }
+
+    /**
+     * Appends the badges of a build to the journal, or merges the journal into the file once it is long.
+     */
+    private void write(Job<?, ?> job, int number, List<Entry> entries) throws IOException {
+        if (journalLines >= Math.max(MIN_JOURNAL_LINES, builds.size())) {
+            save(job);
+            return;
+        }
+        StringBuilder line = new StringBuilder().append(number);
+        for (Entry e : entries) {
+            line.append(' ').append(encode(e.icon));
+            line.append(' ').append(e.textHash);
+            line.append(' ').append(encode(e.link));
+        }
+        line.append('\n');
+        Files.writeString(
+                journalOf(job).toPath(),
+                line,
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        journalLines++;
+    }
+
+    /**
+     * Writes the whole index, then drops the journal, which would only apply again the same changes if left.
+     */
+    private void save(Job<?, ?> job) throws IOException {
+        fileOf(job).write(this);
+        Files.deleteIfExists(journalOf(job).toPath());
+        journalLines = 0;
+    }
+
+    /**
+     * Adds the builds of the job which have badges but were never recorded, once, in the background.
+     */
+    private synchronized void backfill(Job<?, ?> job) {
+        if (complete || backfilling) {
+            return;
+        }
+        backfilling = true;
+        Computer.threadPoolForRemoting.submit(() -> {
+            try {
+                for (Run<?, ?> run : job.getBuilds()) {
+                    synchronized (this) {
+                        // skip builds recorded or deleted meanwhile
+                        if (!builds.containsKey(run.getNumber())
+                                && run.getRootDir().isDirectory()) {
+                            List<Entry> entries = entriesOf(run);
+                            if (!entries.isEmpty()) {
+                                put(run.getNumber(), entries);
+                                write(job, run.getNumber(), entries);
+                            }
+                        }
+                    }
+                }
+                synchronized (this) {
+                    complete = true;
+                    save(job);
+                }
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Failed to add the builds of " + job + " to the badge index", e);
+            } finally {
+                synchronized (this) {
+                    backfilling = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * @return whether the builds run before the index existed were added, so searches find all the builds
+     */
+    synchronized boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return the badges recorded for a build, in the order of its actions
+     */
+    @NonNull
+    synchronized List<Entry> get(int number) {
+        return new ArrayList<Entry>(builds.getOrDefault(number, Collections.<Entry>emptyList()));
+    }
+
+    /**
+     * @param text the exact badge text, or null for any text
+     * @param icon the exact badge icon, or null for any icon
+     * @return the badges of the builds from {@code from} to {@code to}, both included, matching the text and icon,
+     *     in ascending build number
+     */
+    @NonNull
+    synchronized List<Entry> search(@CheckForNull String text, @CheckForNull String icon, int from, int to) {
+        long textHash = hash(text);
+        List<Entry> result = new ArrayList<Entry>();
+        if (from > to) {
+            return result;
+        }
+        for (List<Entry> entries : builds.subMap(from, true, to, true).values()) {
+            for (Entry e : entries) {
+                if ((text == null || e.textHash == textHash) && (icon == null || icon.equals(e.icon))) {
+                    result.add(e);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A badge of a build.
+     */
+    static final class Entry {
+        private final int number;
+        private final String icon;
+        private final long textHash;
+        private final String link;
+
+        Entry(int number, String icon, long textHash, String link) {
+            this.number = number;
+            this.icon = icon;
+            this.textHash = textHash;
+            this.link = link;
+        }
+
+        int getNumber() {
+            return number;
+        }
+
+        @CheckForNull
+        String getIcon() {
+            return icon;
+        }
+
+        long getTextHash() {
+            return textHash;
+        }
+
+        @CheckForNull
+        String getLink() {
+            return link;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry e = (Entry) o;
+            return number == e.number
+                    && textHash == e.textHash
+                    && Objects.equals(icon, e.icon)
+                    && Objects.equals(link, e.link);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(number, icon, textHash, link);
+        }
+    }
+
+    /**
+     * Records the badges of builds when they are saved, if they have badges or their job already has an index.
+     */
+    @Extension
+    public static final class SaveListener extends SaveableListener {
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (!(o instanceof Run)) {
+                return;
+            }
+            Run<?, ?> run = (Run<?, ?>) o;
+            if (run.getAction(BadgeAction.class) == null && !exists(run.getParent())) {
+                return;
+            }
+            try {
+                of(run.getParent()).record(run);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to record the badges of " + run + " in the badge index", e);
+            }
+        }
+    }
+
+    /**
+     * Removes deleted builds from the index of their job, if it has one.
+     */
+    @Extension
+    public static final class DeletionListener extends RunListener<Run<?, ?>> {
+        @Override
+        public void onDeleted(Run<?, ?> run) {
+            Job<?, ?> job = run.getParent();
+            if (!exists(job)) {
+                return;
+            }
+            try {
+                of(job).remove(run);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to remove " + run + " from the badge index", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import hudson.util.FormValidation;
+import hudson.util.ListBoxModel;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+
+/**
+ * Adds a badge and changes the build result when a line of the build log matches,
+ * without any Groovy script.
+ */
+public class BadgeRule extends AbstractDescribableImpl<BadgeRule> {
+    private final String pattern;
+    private boolean literal;
+    private String badge = "warning";
+    private String text;
+    private String result = "";
+
+    @DataBoundConstructor
+    public BadgeRule(String pattern) {
+        this.pattern = Util.fixNull(pattern);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public boolean isLiteral() {
+        return literal;
+    }
+
+    /**
+     * @param literal true if the pattern is a text the line must contain, false if it is a regular expression
+     *                the whole line must match
+     */
+    @DataBoundSetter
+    public void setLiteral(boolean literal) {
+        this.literal = literal;
+    }
+
+    public String getBadge() {
+        return badge;
+    }
+
+    /**
+     * @param badge one of {@code info}, {@code warning}, {@code error}, {@code text} or {@code none}
+     */
+    @DataBoundSetter
+    public void setBadge(String badge) {
+        this.badge = Util.fixEmptyAndTrim(badge) != null ? badge.trim() : "none";
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    @DataBoundSetter
+    public void setText(String text) {
+        this.text = Util.fixEmpty(text);
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * @param result {@code UNSTABLE}, {@code FAILURE}, or empty to keep the result
+     */
+    @DataBoundSetter
+    public void setResult(String result) {
+        this.result = Util.fixNull(result).trim();
+    }
+
+    /**
+     * @return the regular expression a whole line must match for this rule to apply
+     */
+    @NonNull
+    String toRegex() {
+        return literal ? ".*" + Pattern.quote(pattern) + ".*" : pattern;
+    }
+
+    /**
+     * Applies this rule to a build whose log matched.
+     */
+    void apply(GroovyPostbuildRecorder.BadgeManager manager) {
+        String badgeText = text != null ? text : pattern;
+        switch (badge) {
+            case "info":
+                manager.addInfoBadge(badgeText);
+                break;
+            case "warning":
+                manager.addWarningBadge(badgeText);
+                break;
+            case "error":
+                manager.addErrorBadge(badgeText);
+                break;
+            case "text":
+                manager.addShortText(badgeText);
+                break;
+            default:
+                break;
+        }
+        switch (result) {
+            case "UNSTABLE":
+                manager.buildUnstable();
+                break;
+            case "FAILURE":
+                manager.buildFailure();
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Extension
+    public static class DescriptorImpl extends Descriptor<BadgeRule> {
+        @Override
+        public String getDisplayName() {
+            return "Log rule";
+        }
+
+        public ListBoxModel doFillBadgeItems() {
+            ListBoxModel items = new ListBoxModel();
+            items.add("Warning badge", "warning");
+            items.add("Error badge", "error");
+            items.add("Info badge", "info");
+            items.add("Short text", "text");
+            items.add("No badge", "none");
+            return items;
+        }
+
+        public ListBoxModel doFillResultItems() {
+            ListBoxModel items = new ListBoxModel();
+            items.add("Keep the build result", "");
+            items.add("Mark build as unstable", "UNSTABLE");
+            items.add("Mark build as failed", "FAILURE");
+            return items;
+        }
+
+        public FormValidation doCheckPattern(@QueryParameter String value, @QueryParameter boolean literal) {
+            if (Util.fixEmpty(value) == null) {
+                return FormValidation.error("A pattern is required");
+            }
+            if (!literal) {
+                try {
+                    BadgeRuleMatcher.compile(value);
+                } catch (PatternSyntaxException e) {
+                    return FormValidation.error("Invalid regular expression: " + e.getDescription());
+                }
+            }
+            return FormValidation.ok();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Matches the lines of a log against all {@link BadgeRule}s of a recorder in a single pass.
+ *
+ * Most lines match no rule, so each line is first checked against one alternation of the rules
+ * not matched yet, and only lines matching it are checked against each rule.
+ */
+/*package*/ final class BadgeRuleMatcher {
+    private final List<BadgeRule> rules;
+    private final Pattern[] patterns;
+
+    /**
+     * Whether a pattern may be part of an alternation.
+     * Back references would refer to groups of other patterns there.
+     */
+    private final boolean[] combinable;
+
+    BadgeRuleMatcher(@NonNull List<BadgeRule> rules) throws PatternSyntaxException {
+        this.rules = List.copyOf(rules);
+        this.patterns = new Pattern[rules.size()];
+        this.combinable = new boolean[rules.size()];
+        for (int i = 0; i < patterns.length; i++) {
+            String regex = rules.get(i).toRegex();
+            patterns[i] = compile(regex);
+            combinable[i] = isCombinable(regex);
+        }
+    }
+
+    /**
+     * Compiles the pattern of a rule on its own.
+     * A quote opened by {@code \Q} and not closed would swallow the rules after it in the alternation,
+     * so such patterns are rejected.
+     */
+    @NonNull
+    static Pattern compile(@NonNull String regex) throws PatternSyntaxException {
+        Pattern pattern = Pattern.compile(regex);
+        int quote = openQuote(regex);
+        if (quote >= 0) {
+            throw new PatternSyntaxException("Unterminated \\Q quote, close it with \\E", regex, quote);
+        }
+        return pattern;
+    }
+
+    /**
+     * @return whether a pattern may be part of an alternation of patterns, matching the same lines there:
+     *     neither its back references nor an open {@code \Q} quote would reach the other patterns
+     */
+    static boolean isCombinable(@NonNull String regex) {
+        return !regex.matches("(?s).*\\\\([1-9]|k<).*") && openQuote(regex) < 0;
+    }
+
+    /**
+     * @return the index of the {@code \Q} without a matching {@code \E}, or -1 if quotes are closed
+     */
+    private static int openQuote(String regex) {
+        int i = 0;
+        while (i < regex.length()) {
+            int backslash = regex.indexOf('\\', i);
+            if (backslash < 0 || backslash + 1 >= regex.length()) {
+                return -1;
+            }
+            if (regex.charAt(backslash + 1) == 'Q') {
+                int end = regex.indexOf("\\E", backslash + 2);
+                if (end < 0) {
+                    return backslash;
+                }
+                i = end + 2;
+            } else {
+                i = backslash + 2;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the rules matching at least one line, in their configured order
+     */
+    @NonNull
+    List<BadgeRule> scan(@NonNull BufferedReader reader) throws IOException {
+        return scan(reader, ScanBudget.start());
+    }
+
+    /**
+     * @return the rules matching at least one line, in their configured order
+     * @throws ScanBudget.ExceededException if the scan is over budget before all rules matched or the log ended
+     */
+    @NonNull
+    List<BadgeRule> scan(@NonNull BufferedReader reader, @NonNull ScanBudget budget) throws IOException {
+        boolean[] matched = new boolean[patterns.length];
+        Matcher[] matchers = new Matcher[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            matchers[i] = patterns[i].matcher("");
+        }
+        int remaining = patterns.length;
+        Pattern filter = combine(matched);
+        Matcher filterMatcher = filter != null ? filter.matcher("") : null;
+        String line;
+        while (remaining > 0 && (line = reader.readLine()) != null) {
+            budget.check(line);
+            if (filterMatcher != null && !budget.matches(filterMatcher, line)) {
+                continue;
+            }
+            int before = remaining;
+            for (int i = 0; i < patterns.length; i++) {
+                if (!matched[i] && budget.matches(matchers[i], line)) {
+                    matched[i] = true;
+                    remaining--;
+                }
+            }
+            if (remaining != before) {
+                filter = combine(matched);
+                filterMatcher = filter != null ? filter.matcher("") : null;
+            }
+        }
+        List<BadgeRule> result = new ArrayList<BadgeRule>();
+        for (int i = 0; i < patterns.length; i++) {
+            if (matched[i]) {
+                result.add(rules.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return an alternation of the rules not matched yet, or null if each line must be checked against each rule
+     */
+    @CheckForNull
+    private Pattern combine(boolean[] matched) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < patterns.length; i++) {
+            if (matched[i]) {
+                continue;
+            }
+            if (!combinable[i]) {
+                return null;
+            }
+            if (regex.length() > 0) {
+                regex.append('|');
+            }
+            regex.append("(?:").append(patterns[i].pattern()).append(')');
+        }
+        try {
+            return Pattern.compile(regex.toString());
+        } catch (PatternSyntaxException e) {
+            // for example the same group name in two rules
+            return null;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.Action;
+import hudson.model.Item;
+import hudson.model.Job;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import jenkins.model.TransientActionFactory;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.StaplerResponse2;
+
+/**
+ * Searches the {@link BadgeIndex} of a job over HTTP, like
+ * {@code job/NAME/groovy-postbuild-badges/search?text=flaky-db&limit=20},
+ * without loading any build.
+ */
+public class BadgeSearchAction implements Action {
+    private final Job<?, ?> job;
+
+    BadgeSearchAction(Job<?, ?> job) {
+        this.job = job;
+    }
+
+    public Job<?, ?> getJob() {
+        return job;
+    }
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Badge search";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "groovy-postbuild-badges";
+    }
+
+    /**
+     * Writes the badges matching the exact text and icon, when given, of the latest builds first, as JSON.
+     *
+     * @param limit the maximum number of badges, 100 if not positive
+     */
+    public void doSearch(
+            StaplerResponse2 rsp, @QueryParameter String text, @QueryParameter String icon, @QueryParameter int limit)
+            throws IOException {
+        job.checkPermission(Item.READ);
+        BadgeIndex index = BadgeIndex.of(job);
+        List<BadgeIndex.Entry> found =
+                index.search(Util.fixEmpty(text), Util.fixEmpty(icon), Integer.MIN_VALUE, Integer.MAX_VALUE);
+        Collections.reverse(found);
+        JSONArray badges = new JSONArray();
+        for (BadgeIndex.Entry e : found.subList(0, Math.min(found.size(), limit > 0 ? limit : 100))) {
+            JSONObject badge = new JSONObject();
+            badge.put("number", e.getNumber());
+            badge.put("icon", e.getIcon());
+            badge.put("link", e.getLink());
+            badges.add(badge);
+        }
+        JSONObject result = new JSONObject();
+        result.put("badges", badges);
+        result.put("complete", index.isComplete());
+        rsp.setContentType("application/json;charset=UTF-8");
+        rsp.getWriter().print(result);
+    }
+
+    @Extension
+    public static final class Factory extends TransientActionFactory<Job> {
+        @Override
+        public Class<Job> type() {
+            return Job.class;
+        }
+
+        @NonNull
+        @Override
+        public Collection<? extends Action> createFor(@NonNull Job target) {
+            return Collections.singleton(new BadgeSearchAction(target));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Run;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Serializes the changes made to one build by all scripts, and coalesces their saves.
+ *
+ * Several scripts may change the same earlier build at once, for example with
+ * {@link GroovyPostbuildRecorder.BadgeManager#setBuildNumber(int)} in concurrent builds of a job.
+ * Their changes are applied one at a time to the loaded build, so additions and removals of badges all apply,
+ * and a script skips saving the build when a save started after the script ended, as that save wrote its changes.
+ *
+ * There is one mutex per build, kept as long as a manager refers to it, so unrelated builds never wait on each other.
+ */
+/*package*/ final class BuildMutex {
+    private static final LoadingCache<String, BuildMutex> MUTEXES = CacheBuilder.newBuilder()
+            .weakValues()
+            .build(new CacheLoader<String, BuildMutex>() {
+                @Override
+                public BuildMutex load(String id) {
+                    return new BuildMutex();
+                }
+            });
+
+    /**
+     * Orders the ends of scripts and the starts of saves.
+     */
+    private static final AtomicLong CLOCK = new AtomicLong();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Guarded by {@link #lock}. */
+    private long lastSaveStart;
+
+    private BuildMutex() {}
+
+    /**
+     * @return the mutex of the build, shared with all managers referring to it
+     */
+    @NonNull
+    static BuildMutex of(@NonNull Run<?, ?> run) {
+        return MUTEXES.getUnchecked(run.getExternalizableId());
+    }
+
+    /**
+     * @return a time to pass to {@link #save(Run, long)} once all changes of a script are made
+     */
+    static long now() {
+        return CLOCK.incrementAndGet();
+    }
+
+    /**
+     * Changes the build while no other script changes or saves it.
+     */
+    <R extends Run<?, ?>> void change(@NonNull R run, @NonNull Consumer<R> change) {
+        lock.lock();
+        try {
+            change.accept(run);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Saves the build, with its summaries externalized, unless a save started after the given time.
+     *
+     * @param changedBefore the time returned by {@link #now()} once the changes to save were made
+     * @return false if the save was skipped
+     */
+    boolean save(@NonNull Run<?, ?> run, long changedBefore) throws IOException {
+        lock.lock();
+        try {
+            if (lastSaveStart > changedBefore) {
+                return false;
+            }
+            long start = now();
+            PostbuildEvents.SaveEvent event = PostbuildEvents.save(run);
+            ExternalBadgeSummaryAction.externalize(run);
+            run.save();
+            if (event != null) {
+                event.commit();
+            }
+            // a failed save leaves the build to the next script
+            lastSaveStart = start;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
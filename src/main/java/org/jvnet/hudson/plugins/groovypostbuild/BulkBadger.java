@@ -0,0 +1,192 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import com.jenkinsci.plugins.badge.action.BadgeAction;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Util;
+import hudson.model.Fingerprint;
+import hudson.model.Job;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.util.SystemProperties;
+
+/**
+ * Adds the same badge to a range of builds of a job.
+ *
+ * Builds are visited one by one and not kept in memory after they were saved.
+ * Modified builds are collected and saved in batches, each build once,
+ * with a progress line printed after each batch.
+ */
+/*package*/ final class BulkBadger {
+    private static final Logger LOGGER = Logger.getLogger(BulkBadger.class.getName());
+
+    /**
+     * Number of modified builds saved at a time.
+     */
+    static /* non-final for script console */ int BATCH_SIZE =
+            SystemProperties.getInteger(BulkBadger.class.getName() + ".batchSize", 100);
+
+    private final Job<?, ?> job;
+    private final Fingerprint.RangeSet range;
+
+    @CheckForNull
+    private final Result result;
+
+    private final String icon;
+    private final String text;
+
+    @CheckForNull
+    private final String link;
+
+    BulkBadger(
+            @NonNull Job<?, ?> job,
+            @NonNull String range,
+            @CheckForNull Result result,
+            @CheckForNull String icon,
+            @NonNull String text,
+            @CheckForNull String link) {
+        this.job = job;
+        this.range = Fingerprint.RangeSet.fromString(range, false);
+        this.result = result;
+        this.icon = BadgeFlyweights.intern(Util.fixEmptyAndTrim(icon));
+        this.text = text;
+        this.link = Util.fixEmptyAndTrim(link);
+    }
+
+    /**
+     * Creates a badger from the arguments of {@code manager.badgeBuilds}.
+     *
+     * @param spec {@code text} is required, {@code icon}, {@code link} and {@code result} are optional.
+     */
+    static BulkBadger fromSpec(@NonNull Job<?, ?> job, @NonNull String range, @NonNull Map<String, ?> spec) {
+        for (String key : spec.keySet()) {
+            if (!key.equals("icon") && !key.equals("text") && !key.equals("link") && !key.equals("result")) {
+                throw new IllegalArgumentException("Unknown badge spec key: " + key);
+            }
+        }
+        Object text = spec.get("text");
+        if (text == null) {
+            throw new IllegalArgumentException("Badge spec requires a text");
+        }
+        Object result = spec.get("result");
+        return new BulkBadger(
+                job,
+                range,
+                result != null ? resultOf(result.toString()) : null,
+                stringOf(spec.get("icon")),
+                text.toString(),
+                stringOf(spec.get("link")));
+    }
+
+    /**
+     * @return the build result with that name, ignoring case, or null for an empty name
+     * @throws IllegalArgumentException if there is no such result, where {@link Result#fromString} would pick failure
+     */
+    @CheckForNull
+    static Result resultOf(@CheckForNull String name) {
+        String trimmed = Util.fixEmptyAndTrim(name);
+        if (trimmed == null) {
+            return null;
+        }
+        Result result = Result.fromString(trimmed);
+        if (!result.toString().equalsIgnoreCase(trimmed)) {
+            throw new IllegalArgumentException(
+                    "Unknown build result: " + trimmed + ", expected SUCCESS, UNSTABLE, FAILURE, NOT_BUILT or ABORTED");
+        }
+        return result;
+    }
+
+    private static String stringOf(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * Badges the selected builds.
+     *
+     * Builds still running are badged but not saved, as they save themselves when they complete.
+     *
+     * @return the number of badged builds
+     */
+    int run(@NonNull TaskListener listener) throws InterruptedException {
+        List<Run<?, ?>> pending = new ArrayList<Run<?, ?>>();
+        int badged = 0;
+        int saved = 0;
+        for (Fingerprint.Range r : range.getRanges()) {
+            for (Run<?, ?> b = job.getNearestBuild(r.getStart());
+                    b != null && b.getNumber() < r.getEnd();
+                    b = b.getNextBuild()) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                if (result != null && b.getResult() != result) {
+                    continue;
+                }
+                BuildMutex.of(b).change(b, run -> run.addAction(new BadgeAction(null, icon, text, null, null, link)));
+                badged++;
+                if (!b.isBuilding()) {
+                    pending.add(b);
+                }
+                if (pending.size() >= BATCH_SIZE) {
+                    saved += save(pending, listener);
+                    listener.getLogger()
+                            .println("Badged " + badged + " builds of " + job.getFullDisplayName() + ", last was #"
+                                    + b.getNumber());
+                }
+            }
+        }
+        saved += save(pending, listener);
+        listener.getLogger()
+                .println("Badged " + badged + " builds of " + job.getFullDisplayName() + ", saved " + saved + ".");
+        return badged;
+    }
+
+    /**
+     * Saves the builds, unless a script saved them since they were badged.
+     */
+    private static int save(List<Run<?, ?>> pending, TaskListener listener) {
+        long changedBefore = BuildMutex.now();
+        int saved = 0;
+        for (Run<?, ?> b : pending) {
+            try {
+                BuildMutex.of(b).save(b, changedBefore);
+                saved++;
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to save " + b, e);
+                listener.error("Failed to save " + b.getFullDisplayName() + ": " + e);
+            }
+        }
+        pending.clear();
+        return saved;
+    }
+}
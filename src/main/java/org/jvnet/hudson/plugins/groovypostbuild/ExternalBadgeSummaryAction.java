@@ -0,0 +1,216 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import com.jenkinsci.plugins.badge.action.BadgeSummaryAction;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.model.Action;
+import hudson.model.Run;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.RunAction2;
+import jenkins.util.SystemProperties;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.whitelists.Whitelisted;
+
+/**
+ * {@link BadgeSummaryAction} whose text is stored in a file of the build directory instead of {@code build.xml}
+ * once it gets long.
+ *
+ * The text stays in {@code build.xml} until the build is saved with a text longer than {@link #THRESHOLD}.
+ * From then on it is read when the summary is rendered, and only softly kept in memory afterwards.
+ * Changing the text rewrites the file, or moves the text back to {@code build.xml} if it got short again.
+ */
+public class ExternalBadgeSummaryAction extends BadgeSummaryAction implements RunAction2 {
+    private static final Logger LOGGER = Logger.getLogger(ExternalBadgeSummaryAction.class.getName());
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Summaries with a longer text are moved out of {@code build.xml}.
+     */
+    static /* non-final for script console */ int THRESHOLD =
+            SystemProperties.getInteger(ExternalBadgeSummaryAction.class.getName() + ".threshold", 16 * 1024);
+
+    static final String DIRECTORY = "groovy-postbuild-summaries";
+
+    /**
+     * Path of the text file, relative to the build directory, or null while the text is in {@code build.xml}.
+     */
+    private String file;
+
+    private transient Run<?, ?> run;
+    private transient volatile SoftReference<String> cachedText;
+
+    private ExternalBadgeSummaryAction(BadgeSummaryAction summary) {
+        super(summary.getId(), summary.getIcon(), null, summary.getCssClass(), summary.getStyle(), summary.getLink());
+    }
+
+    /**
+     * Moves the text of long summaries of a build to files, keeping the order of the actions.
+     * Only plain {@link BadgeSummaryAction}s are replaced, by a copy of all their fields,
+     * as subclasses may hold more state.
+     */
+    static void externalize(Run<?, ?> run) throws IOException {
+        @SuppressWarnings("deprecation")
+        List<Action> actions = run.getActions();
+        for (int i = 0; i < actions.size(); i++) {
+            Action a = actions.get(i);
+            if (a instanceof ExternalBadgeSummaryAction) {
+                ExternalBadgeSummaryAction external = (ExternalBadgeSummaryAction) a;
+                external.run = run;
+                external.externalize();
+            } else if (a != null && a.getClass() == BadgeSummaryAction.class) {
+                BadgeSummaryAction summary = (BadgeSummaryAction) a;
+                String text = summary.getText();
+                if (text == null || text.length() <= THRESHOLD) {
+                    continue;
+                }
+                ExternalBadgeSummaryAction external = new ExternalBadgeSummaryAction(summary);
+                external.run = run;
+                external.setText(text);
+                external.externalize();
+                actions.set(i, external);
+            }
+        }
+    }
+
+    private synchronized void externalize() throws IOException {
+        String text = super.getText();
+        if (file != null || text == null || text.length() <= THRESHOLD) {
+            return;
+        }
+        String path = DIRECTORY + "/" + UUID.randomUUID() + ".html";
+        write(new File(run.getRootDir(), path), text);
+        file = path;
+        cachedText = new SoftReference<String>(text);
+        super.setText(null);
+    }
+
+    private static void write(File f, String text) throws IOException {
+        Files.createDirectories(f.getParentFile().toPath());
+        Files.writeString(f.toPath(), text, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized String getText() {
+        if (file == null) {
+            return super.getText();
+        }
+        SoftReference<String> ref = cachedText;
+        String value = ref != null ? ref.get() : null;
+        if (value == null) {
+            value = load();
+            cachedText = new SoftReference<String>(value);
+        }
+        return value;
+    }
+
+    private String load() {
+        if (run == null) {
+            return "";
+        }
+        File f = new File(run.getRootDir(), file);
+        try {
+            return Files.readString(f.toPath(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to read the summary " + f, e);
+            return "";
+        }
+    }
+
+    @Override
+    public synchronized void setText(String text) {
+        if (file != null && run != null && text != null && text.length() > THRESHOLD) {
+            File f = new File(run.getRootDir(), file);
+            try {
+                write(f, text);
+                cachedText = new SoftReference<String>(text);
+                return;
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to write the summary " + f + ", keeping it in the build", e);
+            }
+        }
+        delete();
+        super.setText(text);
+    }
+
+    @Override
+    @Whitelisted
+    public void appendText(String text, boolean escapeHtml) {
+        BadgeSummaryAction appended = new BadgeSummaryAction(null, null, "", null, null, null);
+        appended.appendText(text, escapeHtml);
+        append(appended.getText());
+    }
+
+    @Override
+    @Whitelisted
+    public void appendText(String text, boolean escapeHtml, boolean bold, boolean italic, String color) {
+        BadgeSummaryAction appended = new BadgeSummaryAction(null, null, "", null, null, null);
+        appended.appendText(text, escapeHtml, bold, italic, color);
+        append(appended.getText());
+    }
+
+    private synchronized void append(@CheckForNull String text) {
+        setText(Objects.toString(getText(), "") + Objects.toString(text, ""));
+    }
+
+    /**
+     * Deletes the file of the text, if there is one, once the summary is removed from its build
+     * or its text is back in {@code build.xml}.
+     */
+    synchronized void delete() {
+        if (file == null) {
+            return;
+        }
+        if (run != null) {
+            File f = new File(run.getRootDir(), file);
+            try {
+                Files.deleteIfExists(f.toPath());
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to delete the summary " + f, e);
+            }
+        }
+        file = null;
+        cachedText = null;
+    }
+
+    @Override
+    public void onAttached(Run<?, ?> r) {
+        run = r;
+    }
+
+    @Override
+    public void onLoad(Run<?, ?> r) {
+        run = r;
+    }
+}
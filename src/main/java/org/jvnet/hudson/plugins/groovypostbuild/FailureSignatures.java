@@ -0,0 +1,220 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.Util;
+import hudson.XmlFile;
+import hudson.util.XStream2;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+
+/**
+ * Known failure signatures, shared by all jobs of the controller.
+ *
+ * A signature is an error line with its variable parts masked: hashes, paths and numbers.
+ * Signatures are kept in a hash map, saved in {@code JENKINS_HOME}, so classifying a log normalizes each line once
+ * and looks it up in constant time, whatever the number of signatures.
+ * Public for its {@link Extension} only.
+ */
+@Extension
+public final class FailureSignatures {
+    private static final Logger LOGGER = Logger.getLogger(FailureSignatures.class.getName());
+
+    /**
+     * Longer lines are not classified.
+     */
+    static /* non-final for script console */ int MAX_LINE_LENGTH =
+            SystemProperties.getInteger(FailureSignatures.class.getName() + ".maxLineLength", 2048);
+
+    /**
+     * Hexadecimal hashes of at least 7 digits, paths with at least one separator, and numbers, in that order.
+     */
+    private static final Pattern VARIABLE = Pattern.compile("\\b(?=[0-9a-f]*[0-9])(?=[0-9a-f]*[a-f])[0-9a-f]{7,}\\b"
+            + "|(?:[A-Za-z]:)?(?:[\\\\/][\\w.$@+-]+)+[\\\\/]?|[\\w.$@+-]+(?:[\\\\/][\\w.$@+-]+)+[\\\\/]?"
+            + "|\\d+");
+
+    /**
+     * Changes whenever {@link #normalize(String)} does, so hashes of normalized lines saved with builds are computed again.
+     */
+    static final int NORMALIZATION_VERSION = 1;
+
+    private static final XStream2 XSTREAM = new XStream2();
+
+    static {
+        XSTREAM.alias("failureSignatures", FailureSignatures.class);
+        XSTREAM.alias("signature", Signature.class);
+    }
+
+    /** Signatures by their normalized line; replaced, never changed, once published. */
+    private volatile Map<String, Signature> signatures = new HashMap<String, Signature>();
+
+    /**
+     * Loads the signatures saved in {@code JENKINS_HOME}, if any.
+     */
+    public FailureSignatures() {
+        XmlFile file = getConfigFile();
+        if (file.exists()) {
+            try {
+                file.unmarshal(this);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Failed to read the failure signatures from " + file, e);
+            }
+        }
+        if (signatures == null) {
+            signatures = new HashMap<String, Signature>();
+        }
+    }
+
+    /**
+     * @return the signatures of the controller
+     */
+    @NonNull
+    static FailureSignatures get() {
+        return ExtensionList.lookupSingleton(FailureSignatures.class);
+    }
+
+    private static XmlFile getConfigFile() {
+        return new XmlFile(XSTREAM, new File(Jenkins.get().getRootDir(), FailureSignatures.class.getName() + ".xml"));
+    }
+
+    /**
+     * @return the line with its hashes replaced by {@code <hash>}, its paths by {@code <path>},
+     *     its numbers by {@code <n>}, and its blanks collapsed
+     */
+    @NonNull
+    static String normalize(@NonNull String line) {
+        Matcher m = VARIABLE.matcher(line.trim());
+        StringBuilder buf = new StringBuilder();
+        while (m.find()) {
+            String found = m.group();
+            String mask = found.indexOf('/') >= 0 || found.indexOf('\\') >= 0
+                    ? "<path>"
+                    : Character.isDigit(found.charAt(0)) && found.chars().allMatch(Character::isDigit)
+                            ? "<n>"
+                            : "<hash>";
+            m.appendReplacement(buf, mask);
+        }
+        m.appendTail(buf);
+        return buf.toString().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Adds or replaces the signature of an error line.
+     *
+     * @return the signature
+     */
+    @NonNull
+    synchronized String add(@NonNull String line, @NonNull String text, @CheckForNull String icon) throws IOException {
+        String signature = normalize(line);
+        Map<String, Signature> copy = new HashMap<String, Signature>(signatures);
+        copy.put(signature, new Signature(text, BadgeFlyweights.intern(Util.fixEmptyAndTrim(icon))));
+        signatures = copy;
+        getConfigFile().write(this);
+        return signature;
+    }
+
+    /**
+     * @return false if there was no signature for that line
+     */
+    synchronized boolean remove(@NonNull String line) throws IOException {
+        String signature = normalize(line);
+        if (!signatures.containsKey(signature)) {
+            return false;
+        }
+        Map<String, Signature> copy = new HashMap<String, Signature>(signatures);
+        copy.remove(signature);
+        signatures = copy;
+        getConfigFile().write(this);
+        return true;
+    }
+
+    int size() {
+        return signatures.size();
+    }
+
+    /**
+     * Reads a log once, looking each line up among the signatures.
+     *
+     * @return for each signature found, in the order of their first line, a map with the {@code signature},
+     *     the badge {@code text} and {@code icon}, and the first {@code line} having it
+     */
+    @NonNull
+    List<Map<String, String>> classify(@NonNull BufferedReader reader, @NonNull ScanBudget budget) throws IOException {
+        Map<String, Signature> known = signatures;
+        if (known.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, Map<String, String>> found = new LinkedHashMap<String, Map<String, String>>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            budget.check(line);
+            if (line.length() > MAX_LINE_LENGTH || line.isBlank()) {
+                continue;
+            }
+            String signature = normalize(line);
+            Signature s = known.get(signature);
+            if (s != null && !found.containsKey(signature)) {
+                Map<String, String> match = new LinkedHashMap<String, String>();
+                match.put("signature", signature);
+                match.put("text", s.text);
+                match.put("icon", s.icon);
+                match.put("line", line);
+                found.put(signature, match);
+            }
+        }
+        return new ArrayList<Map<String, String>>(found.values());
+    }
+
+    /**
+     * The badge of a known failure.
+     */
+    static final class Signature {
+        private final String text;
+
+        @CheckForNull
+        private final String icon;
+
+        Signature(String text, String icon) {
+            this.text = text;
+            this.icon = icon;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.console.AnnotatedLargeText;
+import hudson.model.Run;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jenkinsci.plugins.workflow.actions.LabelAction;
+import org.jenkinsci.plugins.workflow.actions.LogAction;
+import org.jenkinsci.plugins.workflow.actions.ThreadNameAction;
+import org.jenkinsci.plugins.workflow.flow.FlowExecution;
+import org.jenkinsci.plugins.workflow.flow.FlowExecutionOwner;
+import org.jenkinsci.plugins.workflow.graph.BlockStartNode;
+import org.jenkinsci.plugins.workflow.graph.FlowNode;
+import org.jenkinsci.plugins.workflow.graphanalysis.DepthFirstScanner;
+
+/**
+ * Selects the logs of a stage or a flow node of a Pipeline run, and of the nodes it encloses.
+ *
+ * Each node log is read from the byte ranges the log storage indexed for that node,
+ * so the rest of the build log is never read.
+ * Only loaded when the Pipeline plugins are installed.
+ */
+/*package*/ final class FlowNodeLogs {
+    private FlowNodeLogs() {}
+
+    /**
+     * @param scope either {@code stage}, the name of a stage, or {@code node}, the id of a flow node
+     * @return the logs of the selected nodes and of the nodes they enclose, in the order the nodes started
+     * @throws IllegalArgumentException if the run is not a Pipeline run or the scope selects no node
+     */
+    @NonNull
+    static List<AnnotatedLargeText<? extends FlowNode>> select(@NonNull Run<?, ?> run, @NonNull Map<String, ?> scope)
+            throws IOException {
+        if (scope.size() != 1 || !(scope.containsKey("stage") || scope.containsKey("node"))) {
+            throw new IllegalArgumentException("Expected either stage or node, but got " + scope.keySet());
+        }
+        if (!(run instanceof FlowExecutionOwner.Executable)) {
+            throw new IllegalArgumentException(run.getFullDisplayName() + " is not a Pipeline run");
+        }
+        FlowExecutionOwner owner = ((FlowExecutionOwner.Executable) run).asFlowExecutionOwner();
+        FlowExecution execution = owner != null ? owner.getOrNull() : null;
+        if (execution == null) {
+            throw new IllegalArgumentException(run.getFullDisplayName() + " has no Pipeline execution");
+        }
+        List<FlowNode> all = new DepthFirstScanner().allNodes(execution);
+        Set<FlowNode> starts = new HashSet<FlowNode>();
+        if (scope.containsKey("stage")) {
+            String stage = String.valueOf(scope.get("stage"));
+            for (FlowNode node : all) {
+                if (isStage(node) && stage.equals(node.getDisplayName())) {
+                    starts.add(node);
+                }
+            }
+            if (starts.isEmpty()) {
+                throw new IllegalArgumentException("No stage named " + stage + " in " + run.getFullDisplayName());
+            }
+        } else {
+            String id = String.valueOf(scope.get("node"));
+            FlowNode node = execution.getNode(id);
+            if (node == null) {
+                throw new IllegalArgumentException("No flow node " + id + " in " + run.getFullDisplayName());
+            }
+            starts.add(node);
+        }
+
+        List<FlowNode> selected = new ArrayList<FlowNode>();
+        for (FlowNode node : all) {
+            if (starts.contains(node) || encloses(starts, node)) {
+                selected.add(node);
+            }
+        }
+        // ids are increasing numbers
+        selected.sort(
+                Comparator.comparing((FlowNode node) -> node.getId().length()).thenComparing(FlowNode::getId));
+        List<AnnotatedLargeText<? extends FlowNode>> logs = new ArrayList<AnnotatedLargeText<? extends FlowNode>>();
+        for (FlowNode node : selected) {
+            LogAction log = node.getPersistentAction(LogAction.class);
+            if (log != null) {
+                logs.add(log.getLogText());
+            }
+        }
+        return logs;
+    }
+
+    /**
+     * Whether the node starts the body of a stage, rather than of a parallel branch or another step.
+     */
+    private static boolean isStage(FlowNode node) {
+        return node instanceof BlockStartNode
+                && node.getPersistentAction(LabelAction.class) != null
+                && node.getPersistentAction(ThreadNameAction.class) == null;
+    }
+
+    private static boolean encloses(Set<FlowNode> starts, FlowNode node) {
+        for (BlockStartNode block : node.iterateEnclosingBlocks()) {
+            if (starts.contains(block)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -29,9 +29,14 @@ import hudson.init.InitMilestone;
 import hudson.init.Initializer;
 import hudson.matrix.MatrixProject;
 import hudson.model.AbstractProject;
+import hudson.model.Computer;
 import hudson.model.Run;
 import hudson.tasks.BuildStepDescriptor;
 import hudson.tasks.Publisher;
+import hudson.util.FormValidation;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.StaplerRequest2;
 
 @Extension
@@ -70,6 +75,17 @@ public class GroovyPostbuildDescriptor extends BuildStepDescriptor<Publisher> {
         return true;
     }
 
+    public FormValidation doCheckLivePatterns(@QueryParameter String value) {
+        for (String regexp : GroovyPostbuildRecorder.splitLivePatterns(value)) {
+            try {
+                Pattern.compile(regexp);
+            } catch (PatternSyntaxException e) {
+                return FormValidation.error("Invalid regular expression: " + e.getDescription());
+            }
+        }
+        return FormValidation.ok();
+    }
+
     /**
      * Check whether the configuring model is {@link MatrixProject}. Called from jelly.
      *
@@ -92,5 +108,21 @@ public class GroovyPostbuildDescriptor extends BuildStepDescriptor<Publisher> {
         Run.XSTREAM2.addCompatibilityAlias(
                 "org.jvnet.hudson.plugins.groovypostbuild.GroovyPostbuildSummaryAction",
                 GroovyPostbuildSummaryActionMigrator.class);
+        BadgeFlyweights.registerConverters(Run.XSTREAM2);
+    }
+
+    @Initializer(after = InitMilestone.JOB_CONFIG_ADAPTED)
+    public static void migrateLegacyBuilds() {
+        if (LegacyBuildMigration.ON_STARTUP) {
+            LegacyBuildMigration.get().startOnStartup();
+        }
+    }
+
+    /**
+     * Saves once the projects still configured in the format of groovy-postbuild 1.x, in the background.
+     */
+    @Initializer(after = InitMilestone.JOB_CONFIG_ADAPTED)
+    public static void migrateLegacyConfigs() {
+        Computer.threadPoolForRemoting.submit(LegacyConfigMigration::run);
     }
 }
@@ -0,0 +1,141 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.Job;
+import hudson.model.ManagementLink;
+import hudson.model.Result;
+import hudson.security.Permission;
+import hudson.util.StreamTaskListener;
+import io.jenkins.plugins.ionicons.Ionicons;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.StaplerResponse2;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+/**
+ * Administrative page for maintenance tasks on the badges of existing builds.
+ */
+@Extension
+public class GroovyPostbuildManagementLink extends ManagementLink {
+
+    @Override
+    public String getIconFileName() {
+        return Ionicons.getIconClassName("pricetags-outline");
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Groovy Postbuild";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Add badges to existing builds and migrate legacy build records.";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "groovy-postbuild";
+    }
+
+    @Override
+    public Permission getRequiredPermission() {
+        return Jenkins.ADMINISTER;
+    }
+
+    @Override
+    public Category getCategory() {
+        return Category.TOOLS;
+    }
+
+    /**
+     * Adds a badge to a range of builds, streaming the progress to the response.
+     */
+    @RequirePOST
+    public void doBadgeBuilds(
+            StaplerResponse2 rsp,
+            @QueryParameter String job,
+            @QueryParameter String range,
+            @QueryParameter String result,
+            @QueryParameter String icon,
+            @QueryParameter String text,
+            @QueryParameter String link)
+            throws IOException, InterruptedException {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        Job<?, ?> target = Jenkins.get().getItemByFullName(Util.fixNull(job), Job.class);
+        if (target == null) {
+            rsp.sendError(404, "No such job: " + job);
+            return;
+        }
+        if (Util.fixEmptyAndTrim(text) == null) {
+            rsp.sendError(400, "A badge text is required");
+            return;
+        }
+        Result buildResult;
+        try {
+            buildResult = BulkBadger.resultOf(result);
+        } catch (IllegalArgumentException e) {
+            rsp.sendError(400, e.getMessage());
+            return;
+        }
+        BulkBadger badger;
+        try {
+            badger = new BulkBadger(target, Util.fixNull(range), buildResult, icon, text, link);
+        } catch (IllegalArgumentException e) {
+            rsp.sendError(400, "Invalid build range: " + range);
+            return;
+        }
+        rsp.setContentType("text/plain;charset=UTF-8");
+        StreamTaskListener listener = new StreamTaskListener(rsp.getOutputStream(), StandardCharsets.UTF_8);
+        badger.run(listener);
+        listener.getLogger().flush();
+    }
+
+    /**
+     * @return the progress of the migration of legacy build records
+     */
+    public String getMigrationStatus() {
+        return LegacyBuildMigration.get().getStatus();
+    }
+
+    public boolean isMigrationRunning() {
+        return LegacyBuildMigration.get().isRunning();
+    }
+
+    /**
+     * Starts rewriting the builds still holding actions of groovy-postbuild 2.3.1 and older, in the background.
+     */
+    @RequirePOST
+    public void doMigrateLegacyBuilds(StaplerResponse2 rsp) throws IOException {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        LegacyBuildMigration.get().start();
+        rsp.sendRedirect2(".");
+    }
+}
@@ -26,36 +26,47 @@ package org.jvnet.hudson.plugins.groovypostbuild;
 import com.jenkinsci.plugins.badge.action.AbstractBadgeAction;
 import com.jenkinsci.plugins.badge.action.BadgeAction;
 import com.jenkinsci.plugins.badge.action.BadgeSummaryAction;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import groovy.lang.Binding;
+import groovy.lang.Closure;
 import hudson.AbortException;
 import hudson.EnvVars;
+import hudson.FilePath;
 import hudson.Functions;
 import hudson.Launcher;
+import hudson.Util;
+import hudson.console.AnnotatedLargeText;
 import hudson.matrix.MatrixAggregatable;
 import hudson.matrix.MatrixAggregator;
 import hudson.matrix.MatrixBuild;
 import hudson.model.*;
 import hudson.tasks.BuildStepMonitor;
 import hudson.tasks.Recorder;
-import io.jenkins.plugins.ionicons.Ionicons;
 import java.io.*;
 import java.net.MalformedURLException;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
 import org.jenkinsci.plugins.scriptsecurity.sandbox.groovy.SecureGroovyScript;
 import org.jenkinsci.plugins.scriptsecurity.sandbox.whitelists.Whitelisted;
 import org.jenkinsci.plugins.scriptsecurity.scripts.ApprovalContext;
 import org.jenkinsci.plugins.scriptsecurity.scripts.ClasspathEntry;
+import org.jenkinsci.plugins.scriptsecurity.scripts.ScriptApproval;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
 /** This class associates {@link BadgeAction}s to a build. */
 @SuppressWarnings("unchecked")
@@ -73,16 +84,46 @@ public class GroovyPostbuildRecorder extends Recorder implements MatrixAggregata
 
     private final boolean runForMatrixParent;
 
+    private List<BadgeRule> rules;
+
+    private transient volatile BadgeRuleMatcher ruleMatcher;
+
+    /** Regular expressions matched while the log is written, one per line. */
+    private String livePatterns;
+
+    private transient volatile SecureGroovyScript scriptWithoutClasspath;
+
+    /**
+     * Whether this recorder was read from the legacy format, and converted since.
+     */
+    private transient boolean legacy;
+
+    /**
+     * Stack traces of failed scripts are cut to this length in the build summary.
+     */
+    static /* non-final for script console */ int MAX_FAILURE_TRACE_LENGTH =
+            SystemProperties.getInteger(GroovyPostbuildRecorder.class.getName() + ".maxFailureTraceLength", 8 * 1024);
+
     public static class BadgeManager {
-        private Run<?, ?> build;
+        private volatile Run<?, ?> build;
+        /** The build of the current {@link #parallel(Collection, Closure)} task, if any. */
+        private final ThreadLocal<Run<?, ?>> taskBuild = new ThreadLocal<Run<?, ?>>();
+
         private final TaskListener listener;
         private final Result scriptFailureResult;
-        private final Set<Run<?, ?>> builds = new HashSet<Run<?, ?>>();
+        /** The builds touched by the script, with their mutexes. */
+        private final Map<Run<?, ?>, BuildMutex> builds = new ConcurrentHashMap<Run<?, ?>, BuildMutex>();
+        /** Summaries created by the script with their builds, whose text is sanitized once the script is over. */
+        private final List<Map.Entry<BadgeSummaryAction, Run<?, ?>>> summaries =
+                new CopyOnWriteArrayList<Map.Entry<BadgeSummaryAction, Run<?, ?>>>();
+        /** Time spent in each phase, attached to the build by the post-build step. */
+        private final PostbuildTimingAction timing = new PostbuildTimingAction();
+
         private EnvVars envVars;
 
         public BadgeManager(Run<?, ?> build, TaskListener listener, Result scriptFailureResult) {
             setBuild(build);
-            try {
+            try (PostbuildTimingAction.Timer t = timing.time("environment")) {
                 this.envVars = build.getEnvironment(listener);
             } catch (InterruptedException e) {
                 // TODO Auto-generated catch block
@@ -125,173 +166,301 @@ public class GroovyPostbuildRecorder extends Recorder implements MatrixAggregata
         }
         // TBD: @Whitelisted
         public Run<?, ?> getBuild() {
-            return build;
+            Run<?, ?> b = taskBuild.get();
+            return b != null ? b : build;
         }
 
+        /**
+         * Changes the build the other methods apply to.
+         * Within a {@link #parallel(Collection, Closure)} task, only the build of that task changes.
+         */
         public void setBuild(Run<?, ?> build) {
             if (build != null) {
-                this.build = build;
-                builds.add(build);
+                builds.computeIfAbsent(build, BuildMutex::of);
+                if (taskBuild.get() != null) {
+                    taskBuild.set(build);
+                } else {
+                    this.build = build;
+                }
             }
         }
 
         public boolean setBuildNumber(int buildNumber) {
-            Run<?, ?> newBuild = build.getParent().getBuildByNumber(buildNumber);
+            Run<?, ?> newBuild = getBuild().getParent().getBuildByNumber(buildNumber);
             setBuild(newBuild);
             return (newBuild != null);
         }
+
+        /**
+         * Adds a badge to the builds of the current job within the given range.
+         * Each modified build is saved once, in batches.
+         *
+         * @param range build numbers, like {@code "1-100,105"}
+         * @param spec the badge {@code text}, and optionally its {@code icon}, {@code link},
+         *             and the {@code result} the builds must have to be badged
+         * @return the number of badged builds
+         */
+        public int badgeBuilds(String range, Map<String, ?> spec) throws InterruptedException {
+            return BulkBadger.fromSpec(getBuild().getParent(), range, spec).run(listener);
+        }
+
+        /**
+         * Allows {@code manager.badgeBuilds('1-100', text: 'flaky')} with named arguments.
+         */
+        public int badgeBuilds(Map<String, ?> spec, String range) throws InterruptedException {
+            return badgeBuilds(range, spec);
+        }
         // TBD: @Whitelisted
         public TaskListener getListener() {
             return listener;
         }
 
+        /**
+         * Calls the closure with each item concurrently, on a pool shared by all scripts, waiting for all calls.
+         * Each call starts with the current build, and {@link #setBuild(Run)} within it only applies to that call.
+         * Closures of Pipeline scripts are rejected, as they only run on the thread of their Pipeline.
+         *
+         * @return the result of each call, in the order of the items
+         */
+        @Whitelisted
+        public List<Object> parallel(Collection<?> items, Closure<?> body) throws Exception {
+            if (isCpsClosure(body)) {
+                throw new IllegalArgumentException(
+                        "manager.parallel cannot call closures of Pipeline scripts, use the parallel step instead");
+            }
+            Run<?, ?> start = getBuild();
+            return ScriptPool.map(items, item -> {
+                Run<?, ?> previous = taskBuild.get();
+                taskBuild.set(start);
+                try {
+                    return body.call(item);
+                } finally {
+                    if (previous != null) {
+                        taskBuild.set(previous);
+                    } else {
+                        taskBuild.remove();
+                    }
+                }
+            });
+        }
+
+        private static boolean isCpsClosure(Closure<?> closure) {
+            // by name, as Pipeline is an optional dependency
+            for (Class<?> c = closure.getClass(); c != null; c = c.getSuperclass()) {
+                if (c.getName().equals("com.cloudbees.groovy.cps.impl.CpsClosure")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Changes the current build while no other manager changes it.
+         */
+        private void change(Consumer<Run<?, ?>> change) {
+            change(getBuild(), change);
+        }
+
+        private void change(Run<?, ?> b, Consumer<Run<?, ?>> change) {
+            try (PostbuildTimingAction.Timer t = timing.time("badge changes", PostbuildEvents.badge(b))) {
+                builds.computeIfAbsent(b, BuildMutex::of).change(b, change);
+            }
+        }
+
+        private void addAction(Action action) {
+            change(b -> b.addAction(action));
+        }
+
+        /**
+         * Saves each build the script touched, with its summaries externalized,
+         * unless another manager saved it since the script ended.
+         */
+        void saveBuilds() throws IOException {
+            long ended = BuildMutex.now();
+            for (Map.Entry<Run<?, ?>, BuildMutex> e : builds.entrySet()) {
+                try (PostbuildTimingAction.Timer t =
+                        timing.time("save " + e.getKey().getFullDisplayName())) {
+                    e.getValue().save(e.getKey(), ended);
+                }
+            }
+        }
+
+        PostbuildTimingAction getTiming() {
+            return timing;
+        }
+
+        /**
+         * Opens the log of a build, counting the bytes read for the timer of the scan.
+         */
+        private static BufferedReader openLog(Run<?, ?> run, PostbuildTimingAction.Timer t) throws IOException {
+            return new BufferedReader(new InputStreamReader(t.count(run.getLogInputStream()), run.getCharset()));
+        }
+
+        /**
+         * Starts measuring a scan of the log of a build, also recorded as a Flight Recorder event.
+         *
+         * @param pattern the regular expression searched, or null if the scan searches something else
+         */
+        private PostbuildTimingAction.Timer timeScan(Run<?, ?> run, String scan, @CheckForNull String pattern) {
+            return timing.time(scan, PostbuildEvents.scan(run, scan, pattern));
+        }
+
         @Whitelisted
         public void addShortText(String text) {
-            build.addAction(new BadgeAction(null, null, text, null, null, null));
+            addAction(new BadgeAction(null, null, text, null, null, null));
         }
 
         @Whitelisted
         public void addShortText(String text, String color, String background, String border, String borderColor) {
             // translate old styling to new field
-            String style = "border: " + (border != null ? border : "") + " solid "
-                    + (borderColor != null ? borderColor : "") + ";";
-            if (background != null) {
-                style += "background: " + background + ";";
-            }
-            if (color != null) {
-                if (color.startsWith("jenkins-!-color")) {
-                    style += "color: var(--" + color.replaceFirst("jenkins-!-color", "") + ");";
-                } else if (color.startsWith("jenkins-!-")) {
-                    style += "color: var(--" + color.replaceFirst("jenkins-!-", "") + ");";
-                } else {
-                    style += "color: " + color + ";";
-                }
-            }
-
-            build.addAction(new BadgeAction(null, null, text, null, style, null));
+            String style = BadgeFlyweights.shortTextStyle(color, background, border, borderColor);
+            addAction(new BadgeAction(null, null, text, null, style, null));
         }
 
         @Whitelisted
         public void addBadge(String icon, String text) {
-            build.addAction(new BadgeAction(null, icon, text, null, null, null));
+            addAction(new BadgeAction(null, BadgeFlyweights.intern(icon), text, null, null, null));
         }
 
         @Whitelisted
         public void addBadge(String icon, String text, String link) {
-            build.addAction(new BadgeAction(null, icon, text, null, null, link));
+            addAction(new BadgeAction(null, BadgeFlyweights.intern(icon), text, null, null, link));
         }
 
         @Whitelisted
         public void addInfoBadge(String text) {
-            build.addAction(new BadgeAction(
-                    null, Ionicons.getIconClassName("information-circle"), text, null, "color: var(--blue)", null));
+            addAction(new BadgeAction(null, BadgeFlyweights.INFO_ICON, text, null, BadgeFlyweights.INFO_STYLE, null));
         }
 
         @Whitelisted
         public void addWarningBadge(String text) {
-            build.addAction(new BadgeAction(
-                    null, Ionicons.getIconClassName("warning"), text, null, "color: var(--warning-color)", null));
+            addAction(new BadgeAction(
+                    null, BadgeFlyweights.WARNING_ICON, text, null, BadgeFlyweights.WARNING_STYLE, null));
         }
 
         @Whitelisted
         public void addErrorBadge(String text) {
-            build.addAction(new BadgeAction(
-                    null, Ionicons.getIconClassName("remove-circle"), text, null, "color: var(--error-color)", null));
+            addAction(new BadgeAction(null, BadgeFlyweights.ERROR_ICON, text, null, BadgeFlyweights.ERROR_STYLE, null));
         }
 
         @Whitelisted
         public void addHtmlBadge(String html) {
-            build.addAction(new BadgeAction(null, null, html, null, null, null));
+            addAction(new BadgeAction(null, null, BadgeHtml.sanitize(html), null, null, null));
         }
 
         @Whitelisted
         public String getResult() {
-            Result r = build.getResult();
+            Result r = getBuild().getResult();
             return (r != null) ? r.toString() : null;
         }
 
         @Whitelisted
         public void removeBadges() {
-            List<AbstractBadgeAction> badgeActions = build.getActions(AbstractBadgeAction.class);
-            for (AbstractBadgeAction a : badgeActions) {
-                build.removeAction(a);
-            }
+            change(build -> {
+                List<AbstractBadgeAction> badgeActions = build.getActions(AbstractBadgeAction.class);
+                for (AbstractBadgeAction a : badgeActions) {
+                    build.removeAction(a);
+                }
+            });
         }
 
         @Whitelisted
         public void removeBadge(int index) {
-            List<AbstractBadgeAction> badgeActions = build.getActions(AbstractBadgeAction.class);
-            if (index < 0 || index >= badgeActions.size()) {
-                listener.error("Invalid badge index: " + index + ". Allowed values: 0 .. " + (badgeActions.size() - 1));
-            } else {
-                AbstractBadgeAction action = badgeActions.get(index);
-                build.removeAction(action);
-            }
+            change(build -> {
+                List<AbstractBadgeAction> badgeActions = build.getActions(AbstractBadgeAction.class);
+                if (index < 0 || index >= badgeActions.size()) {
+                    listener.error(
+                            "Invalid badge index: " + index + ". Allowed values: 0 .. " + (badgeActions.size() - 1));
+                } else {
+                    AbstractBadgeAction action = badgeActions.get(index);
+                    build.removeAction(action);
+                }
+            });
         }
 
         public BadgeSummaryAction createSummary(String icon) {
             BadgeSummaryAction action = new BadgeSummaryAction(null, icon, null, null, null, null);
-            build.addAction(action);
+            addAction(action);
+            summaries.add(Map.entry(action, getBuild()));
             return action;
         }
 
         public void removeSummaries() {
-            List<BadgeSummaryAction> summaryActions = build.getActions(BadgeSummaryAction.class);
-            for (BadgeSummaryAction a : summaryActions) {
-                build.removeAction(a);
-            }
+            change(build -> {
+                List<BadgeSummaryAction> summaryActions = build.getActions(BadgeSummaryAction.class);
+                for (BadgeSummaryAction a : summaryActions) {
+                    removeSummary(build, a);
+                }
+            });
         }
 
         public void removeSummary(int index) {
-            List<BadgeSummaryAction> summaryActions = build.getActions(BadgeSummaryAction.class);
-            if (index < 0 || index >= summaryActions.size()) {
-                listener.error(
-                        "Invalid summary index: " + index + ". Allowed values: 0 .. " + (summaryActions.size() - 1));
-            } else {
-                BadgeSummaryAction action = summaryActions.get(index);
-                build.removeAction(action);
+            change(build -> {
+                List<BadgeSummaryAction> summaryActions = build.getActions(BadgeSummaryAction.class);
+                if (index < 0 || index >= summaryActions.size()) {
+                    listener.error("Invalid summary index: " + index + ". Allowed values: 0 .. "
+                            + (summaryActions.size() - 1));
+                } else {
+                    removeSummary(build, summaryActions.get(index));
+                }
+            });
+        }
+
+        private void removeSummary(Run<?, ?> build, BadgeSummaryAction action) {
+            build.removeAction(action);
+            summaries.removeIf(e -> e.getKey() == action);
+            if (action instanceof ExternalBadgeSummaryAction) {
+                ((ExternalBadgeSummaryAction) action).delete();
             }
         }
 
         @Whitelisted
         public void buildUnstable() {
-            build.setResult(Result.UNSTABLE);
+            change(build -> build.setResult(Result.UNSTABLE));
         }
 
         @Whitelisted
         public void buildFailure() {
-            build.setResult(Result.FAILURE);
+            change(build -> build.setResult(Result.FAILURE));
         }
 
         @Whitelisted
         public void buildSuccess() {
-            build.setResult(Result.SUCCESS);
+            change(build -> build.setResult(Result.SUCCESS));
         }
 
         @Whitelisted
         public void buildAborted() {
-            build.setResult(Result.ABORTED);
+            change(build -> build.setResult(Result.ABORTED));
         }
 
         @Whitelisted
         public void buildNotBuilt() {
-            build.setResult(Result.NOT_BUILT);
+            change(build -> build.setResult(Result.NOT_BUILT));
         }
 
         public void buildScriptFailed(Exception e) {
             StringWriter writer = new StringWriter();
             e.printStackTrace(new PrintWriter(writer));
+            String trace = writer.toString();
+            if (trace.length() > MAX_FAILURE_TRACE_LENGTH) {
+                trace = trace.substring(0, MAX_FAILURE_TRACE_LENGTH) + "\n... ("
+                        + (trace.length() - MAX_FAILURE_TRACE_LENGTH) + " more characters, see the build log)";
+            }
             boolean isError = scriptFailureResult.isWorseThan(Result.UNSTABLE);
             String icon = isError ? "error" : "warning";
             BadgeSummaryAction summary = createSummary(icon + ".gif");
-            summary.setText("<b><font color=\"red\">Groovy script failed:</font></b><br><pre>" + writer + "</pre>");
+            summary.setText("<b><font color=\"red\">Groovy script failed:</font></b><br><pre>" + Util.xmlEscape(trace)
+                    + "</pre>");
 
             addShortText("Groovy", "black", isError ? "#FFE0E0" : "#FFFFC0", "1px", isError ? "#E08080" : "#C0C080");
 
-            Result result = build.getResult();
-            if (result == null || result.isBetterThan(scriptFailureResult)) {
-                build.setResult(scriptFailureResult);
-            }
+            change(build -> {
+                Result result = build.getResult();
+                if (result == null || result.isBetterThan(scriptFailureResult)) {
+                    build.setResult(scriptFailureResult);
+                }
+            });
         }
 
         @Whitelisted
@@ -299,6 +468,18 @@ public class GroovyPostbuildRecorder extends Recorder implements MatrixAggregata
             return getLogMatcher(regexp) != null;
         }
 
+        /**
+         * Like {@link #logContains(String)}, but only searches the log of a stage or flow node of a Pipeline run,
+         * like {@code manager.logContains('.*ERROR.*', stage: 'Integration')}.
+         *
+         * @param scope either {@code stage}, the name of a stage, or {@code node}, the id of a flow node;
+         *              the logs of the nodes they enclose are searched too
+         */
+        @Whitelisted
+        public boolean logContains(Map<String, ?> scope, String regexp) {
+            return getLogMatcher(scope, regexp) != null;
+        }
+
         @Deprecated
         public boolean contains(File f, String regexp) {
             return contains(f, Charset.defaultCharset(), regexp);
@@ -313,16 +494,329 @@ public class GroovyPostbuildRecorder extends Recorder implements MatrixAggregata
 
         @Whitelisted
         public Matcher getLogMatcher(String regexp) {
-            try (Reader r = build.getLogReader()) {
-                return getMatcher(r, regexp);
+            return getLogMatcher(getBuild(), regexp);
+        }
+
+        /**
+         * Like {@link #getLogMatcher(String)}, but only searches the log of a stage or flow node of a Pipeline run.
+         *
+         * @param scope see {@link #logContains(Map, String)}
+         */
+        @Whitelisted
+        public Matcher getLogMatcher(Map<String, ?> scope, String regexp) {
+            if (Jenkins.get().getPlugin("workflow-api") == null) {
+                throw new IllegalArgumentException("Searching the log of a stage or flow node requires Pipeline");
+            }
+            String scan = "logContains(\"" + regexp + "\", " + scope + ")";
+            try (PostbuildTimingAction.Timer t = timeScan(getBuild(), scan, regexp)) {
+                Pattern pattern = compilePattern(regexp);
+                long bytes = 0;
+                try {
+                    for (AnnotatedLargeText<?> text : FlowNodeLogs.select(getBuild(), scope)) {
+                        bytes += text.length();
+                        try (BufferedReader reader = new BufferedReader(text.readAll())) {
+                            Matcher m = LogScanner.firstMatch(reader, pattern);
+                            if (m != null) {
+                                t.setMatched(true);
+                                return m;
+                            }
+                        }
+                    }
+                    return null;
+                } finally {
+                    t.setBytes(bytes);
+                }
             } catch (IOException e) {
-                Functions.printStackTrace(
-                        e, listener.error("Groovy Postbuild: logContains(\"" + regexp + "\") failed."));
+                scanFailed(scan, e);
+                return null;
+            }
+        }
+
+        @CheckForNull
+        Matcher getLogMatcher(Run<?, ?> run, String regexp) {
+            try {
+                return findInLog(run, regexp);
+            } catch (IOException e) {
+                scanFailed("logContains(\"" + regexp + "\")", e);
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                listener.error("Groovy Postbuild: logContains(\"" + regexp + "\") was interrupted.");
                 buildScriptFailed(e);
                 return null;
             }
         }
 
+        /**
+         * @return the first match of the pattern in the log of the run, or null if there is none
+         * @throws IOException if the log could not be read to its end or the pattern is invalid
+         */
+        @CheckForNull
+        Matcher findInLog(Run<?, ?> run, String regexp) throws IOException, InterruptedException {
+            LiveLogFilter.Hits hits = LiveLogFilter.getHits(run);
+            if (hits != null) {
+                // lines printed so far reach the filter
+                listener.getLogger().flush();
+                if (hits.isTracked(regexp)) {
+                    return hits.firstMatch(regexp);
+                }
+            }
+            try (PostbuildTimingAction.Timer t = timeScan(run, "logContains(\"" + regexp + "\")", regexp)) {
+                Matcher m;
+                // only the log of freestyle builds is known to be a plain file
+                if (run instanceof AbstractBuild && LogScanner.isParallel(run.getLogFile(), run.getCharset())) {
+                    t.setBytes(run.getLogFile().length());
+                    m = LogScanner.firstMatch(run.getLogFile(), run.getCharset(), compilePattern(regexp));
+                } else {
+                    try (BufferedReader reader = openLog(run, t)) {
+                        m = LogScanner.firstMatch(reader, compilePattern(regexp));
+                    }
+                }
+                t.setMatched(m != null);
+                return m;
+            }
+        }
+
+        /**
+         * Counts the builds of the job whose log matched a live pattern, among the last build numbers
+         * up to the current build.
+         *
+         * @param regexp one of the live patterns of the job
+         * @param lastBuilds the number of build numbers to look at
+         * @see #countIndexedBuilds(int)
+         */
+        @Whitelisted
+        public int countPatternHits(String regexp, int lastBuilds) {
+            return getPatternHitBuilds(regexp, lastBuilds).size();
+        }
+
+        /**
+         * @return the numbers of the builds of the job whose log matched a live pattern, among the last build numbers
+         *     up to the current build, in ascending order
+         * @see #countPatternHits(String, int)
+         */
+        @Whitelisted
+        public List<Integer> getPatternHitBuilds(String regexp, int lastBuilds) {
+            Run<?, ?> run = getBuild();
+            return PatternHitIndex.of(run.getParent())
+                    .getHits(regexp, run.getNumber() - lastBuilds + 1, run.getNumber());
+        }
+
+        /**
+         * Counts the builds of the job whose log was checked for the live patterns, among the last build numbers
+         * up to the current build. Builds are checked from the first one run with live patterns configured.
+         */
+        @Whitelisted
+        public int countIndexedBuilds(int lastBuilds) {
+            Run<?, ?> run = getBuild();
+            return PatternHitIndex.of(run.getParent())
+                    .getIndexed(run.getNumber() - lastBuilds + 1, run.getNumber())
+                    .size();
+        }
+
+        /**
+         * @return the numbers of the builds of the job having a badge with this exact text, among the last build numbers
+         *     up to the current build, in ascending order, looked up in the badge index of the job
+         */
+        @Whitelisted
+        public List<Integer> getBadgedBuilds(String text, int lastBuilds) {
+            Run<?, ?> run = getBuild();
+            BadgeIndex index = BadgeIndex.of(run.getParent());
+            if (!index.isComplete()) {
+                listener.getLogger()
+                        .println("Groovy Postbuild: the badge index of "
+                                + run.getParent().getFullDisplayName()
+                                + " is still adding older builds, getBadgedBuilds may miss some.");
+            }
+            List<Integer> numbers = new ArrayList<Integer>();
+            for (BadgeIndex.Entry e : index.search(text, null, run.getNumber() - lastBuilds + 1, run.getNumber())) {
+                if (!numbers.contains(e.getNumber())) {
+                    numbers.add(e.getNumber());
+                }
+            }
+            return numbers;
+        }
+
+        /**
+         * Applies the rules matching lines of the build log, reading it once.
+         *
+         * @return false if the log could not be read
+         */
+        boolean applyRules(BadgeRuleMatcher rules) {
+            try (PostbuildTimingAction.Timer t = timeScan(getBuild(), "log rules", null);
+                    BufferedReader reader = openLog(getBuild(), t)) {
+                List<BadgeRule> matched = rules.scan(reader);
+                t.setMatched(!matched.isEmpty());
+                for (BadgeRule rule : matched) {
+                    rule.apply(this);
+                }
+                return true;
+            } catch (IOException e) {
+                scanFailed("applying log rules", e);
+                return false;
+            }
+        }
+
+        /**
+         * Extracts the lines around the lines of the build log matching a regular expression, reading it once
+         * and keeping only the context in memory.
+         *
+         * @param before the number of lines before each matching line, up to 1000
+         * @param after the number of lines after each matching line, up to 1000
+         * @param maxMatches the number of matching lines after which the scan stops
+         * @return the excerpts, each made of lines separated by {@code \n}, merged when their context overlaps
+         */
+        @Whitelisted
+        public List<String> logExcerpt(String regexp, int before, int after, int maxMatches) {
+            String scan = "logExcerpt(\"" + regexp + "\")";
+            try (PostbuildTimingAction.Timer t = timeScan(getBuild(), scan, regexp);
+                    BufferedReader reader = openLog(getBuild(), t)) {
+                List<String> excerpts = LogExcerpts.scan(reader, compilePattern(regexp), before, after, maxMatches);
+                t.setMatched(!excerpts.isEmpty());
+                return excerpts;
+            } catch (IOException e) {
+                scanFailed(scan, e);
+                return null;
+            }
+        }
+
+        /**
+         * Finds the lines of the build log matching a regular expression that another build of the job did not log,
+         * like errors new since a build number.
+         *
+         * @see #newLogLines(String, Run)
+         */
+        @Whitelisted
+        public List<String> newLogLines(String regexp, int againstBuildNumber) {
+            return newLogLines(regexp, getBuild().getParent().getBuildByNumber(againstBuildNumber));
+        }
+
+        /**
+         * Finds the lines of the build log matching a regular expression that another build did not log,
+         * ignoring the numbers, hashes and paths in lines.
+         * The hashes of the matching lines of the other build are saved with it once it is completed,
+         * so its log is only read the first time.
+         *
+         * @param againstBuild the build to compare with, or null to report all matching lines;
+         *     a build of another job must be readable by the authentication the script runs as
+         * @return the new matching lines in the order of the log, each variant once, up to 1000
+         */
+        @Whitelisted
+        public List<String> newLogLines(String regexp, Run<?, ?> againstBuild) {
+            if (againstBuild != null && againstBuild.getParent() != getBuild().getParent()) {
+                againstBuild.checkPermission(Item.READ);
+            }
+            String scan = "newLogLines(\"" + regexp + "\")";
+            try {
+                Pattern pattern = compilePattern(regexp);
+                LineFingerprints reference = LineFingerprints.EMPTY;
+                if (againstBuild != null) {
+                    File f = LineFingerprints.fileOf(againstBuild, regexp);
+                    reference = LineFingerprints.read(f);
+                    if (reference == null) {
+                        try (PostbuildTimingAction.Timer t = timeScan(
+                                        againstBuild, "fingerprints of " + againstBuild.getFullDisplayName(), regexp);
+                                BufferedReader reader = openLog(againstBuild, t)) {
+                            reference = LineFingerprints.scan(reader, pattern, ScanBudget.start());
+                        }
+                        // the log of a running build may still grow
+                        if (!againstBuild.isBuilding()) {
+                            try {
+                                reference.write(f);
+                            } catch (IOException e) {
+                                LOGGER.log(Level.WARNING, "Failed to save " + f, e);
+                            }
+                        }
+                    }
+                }
+                try (PostbuildTimingAction.Timer t = timeScan(getBuild(), scan, regexp);
+                        BufferedReader reader = openLog(getBuild(), t)) {
+                    List<String> lines = reference.newLines(reader, pattern, ScanBudget.start());
+                    t.setMatched(!lines.isEmpty());
+                    return lines;
+                }
+            } catch (IOException e) {
+                scanFailed(scan, e);
+                return null;
+            }
+        }
+
+        /**
+         * Counts the occurrences of literal keywords in the build log, reading it once.
+         *
+         * @return the number of occurrences of each keyword, in the given order
+         */
+        @Whitelisted
+        public Map<String, Integer> countKeywords(List<String> keywords) {
+            KeywordMatcher.Result result = scanKeywords(keywords);
+            return result != null ? result.getCounts() : null;
+        }
+
+        /**
+         * Searches literal keywords in the build log, reading it once.
+         *
+         * @return the first line containing each keyword, for the keywords found
+         */
+        @Whitelisted
+        public Map<String, String> findKeywords(List<String> keywords) {
+            KeywordMatcher.Result result = scanKeywords(keywords);
+            return result != null ? result.getFirstLines() : null;
+        }
+
+        private KeywordMatcher.Result scanKeywords(List<String> keywords) {
+            KeywordMatcher matcher = KeywordMatcher.of(keywords);
+            try (PostbuildTimingAction.Timer t = timeScan(getBuild(), "keywords " + keywords, null);
+                    BufferedReader reader = openLog(getBuild(), t)) {
+                KeywordMatcher.Result result = matcher.scan(reader);
+                t.setMatched(!result.getFirstLines().isEmpty());
+                return result;
+            } catch (IOException e) {
+                scanFailed("searching keywords " + keywords, e);
+                return null;
+            }
+        }
+
+        /**
+         * Looks each line of the build log up among the failure signatures known to the controller, reading it once.
+         *
+         * @return for each signature found, in the order of their first line, a map with the {@code signature},
+         *     its badge {@code text} and {@code icon}, and the first {@code line} having it
+         * @see #addFailureSignature(String, String, String)
+         */
+        @Whitelisted
+        public List<Map<String, String>> classifyFailure() {
+            try (PostbuildTimingAction.Timer t = timeScan(getBuild(), "classifyFailure()", null);
+                    BufferedReader reader = openLog(getBuild(), t)) {
+                List<Map<String, String>> found = FailureSignatures.get().classify(reader, ScanBudget.start());
+                t.setMatched(!found.isEmpty());
+                return found;
+            } catch (IOException e) {
+                scanFailed("classifyFailure()", e);
+                return null;
+            }
+        }
+
+        /**
+         * Adds the signature of an error line to those known to the controller, for all jobs.
+         * Hashes, paths and numbers of the line do not matter.
+         *
+         * @param text the text of the badge for that failure
+         * @param icon the icon of the badge, or null
+         * @return the signature
+         */
+        // not @Whitelisted as shared by all jobs
+        public String addFailureSignature(String line, String text, String icon) throws IOException {
+            return FailureSignatures.get().add(line, text, icon);
+        }
+
+        /**
+         * @return false if no known signature matched the error line
+         */
+        // not @Whitelisted as shared by all jobs
+        public boolean removeFailureSignature(String line) throws IOException {
+            return FailureSignatures.get().remove(line);
+        }
+
         @Deprecated
         public Matcher getMatcher(File f, String regexp) {
             return getMatcher(f, Charset.defaultCharset(), regexp);
@@ -333,18 +827,9 @@ public class GroovyPostbuildRecorder extends Recorder implements MatrixAggregata
             try (BufferedReader reader = new BufferedReader(r)) {
                 Pattern pattern = compilePattern(regexp);
                 // Assume default encoding and text files
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    Matcher m = pattern.matcher(line);
-                    if (m.matches()) {
-                        matcher = m;
-                        break;
-                    }
-                }
+                matcher = LogScanner.firstMatch(reader, pattern);
             } catch (IOException e) {
-                Functions.printStackTrace(
-                        e, listener.error("Groovy Postbuild: getMatcher(…, \"" + regexp + "\") failed."));
-                buildScriptFailed(e);
+                scanFailed("getMatcher(…, \"" + regexp + "\")", e);
             }
             return matcher;
         }
@@ -352,17 +837,130 @@ public class GroovyPostbuildRecorder extends Recorder implements MatrixAggregata
         @Deprecated
         public Matcher getMatcher(File f, Charset charset, String regexp) {
             LOGGER.fine("Searching for '" + regexp + "' in '" + f + "'.");
-            try (InputStream is = new FileInputStream(f);
-                    Reader r = new InputStreamReader(is, charset)) {
-                return getMatcher(r, regexp);
+            try {
+                return LogScanner.firstMatch(f, charset, compilePattern(regexp));
             } catch (IOException e) {
-                Functions.printStackTrace(
-                        e, listener.error("Groovy Postbuild: getMatcher(\"" + f + "\", \"" + regexp + "\") failed."));
+                scanFailed("getMatcher(\"" + f + "\", \"" + regexp + "\")", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                listener.error("Groovy Postbuild: getMatcher(\"" + f + "\", \"" + regexp + "\") was interrupted.");
                 buildScriptFailed(e);
             }
             return null;
         }
 
+        /**
+         * Tests whether a file, for example in the workspace of the build, contains a line matching a regular expression.
+         * The file is read on the node holding it.
+         */
+        // not @Whitelisted unless we know what file that is
+        public boolean contains(FilePath file, String regexp) {
+            return getMatcher(file, null, regexp) != null;
+        }
+
+        public Matcher getMatcher(FilePath file, String regexp) {
+            return getMatcher(file, null, regexp);
+        }
+
+        /**
+         * Finds the first line of a file, for example in the workspace of the build, matching a regular expression.
+         * The file is read on the node holding it, only the matching line is sent back.
+         *
+         * @param charset the charset of the file, or null for the default charset of that node
+         * @return the matcher for the first matching line, or null
+         */
+        public Matcher getMatcher(FilePath file, Charset charset, String regexp) {
+            LOGGER.fine("Searching for '" + regexp + "' in '" + file + "'.");
+            try {
+                Pattern pattern = compilePattern(regexp);
+                String line = file.act(new LogScanner.FirstMatchCallable(pattern, charset));
+                if (line == null) {
+                    return null;
+                }
+                Matcher matcher = pattern.matcher(line);
+                return ScanBudget.start().matches(matcher, line) ? matcher : null;
+            } catch (IOException e) {
+                scanFailed("getMatcher(\"" + file + "\", \"" + regexp + "\")", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                listener.error("Groovy Postbuild: getMatcher(\"" + file + "\", \"" + regexp + "\") was interrupted.");
+                buildScriptFailed(e);
+            }
+            return null;
+        }
+
+        /**
+         * Summarizes the JUnit and TestNG XML reports in the workspace of the build.
+         *
+         * @see #summarizeTests(FilePath, String, int)
+         */
+        public Map<String, Object> summarizeTests(String includes, int limit) {
+            Run<?, ?> run = getBuild();
+            FilePath workspace = run instanceof AbstractBuild ? ((AbstractBuild<?, ?>) run).getWorkspace() : null;
+            if (workspace == null) {
+                listener.error(
+                        "Groovy Postbuild: summarizeTests(\"" + includes + "\") needs the workspace of the build.");
+                return null;
+            }
+            return summarizeTests(workspace, includes, limit);
+        }
+
+        /**
+         * Summarizes JUnit and TestNG XML reports, streaming them on the node holding them.
+         *
+         * @param includes Ant pattern of the reports under {@code dir}
+         * @param limit maximum number of slowest and of failing tests to report
+         * @return a map with the numbers of {@code files}, {@code tests}, {@code failures}, {@code errors}
+         *     and {@code skipped} tests, the total {@code time} in seconds, the names of the first {@code failing}
+         *     tests and the {@code slowest} tests, each a map with its {@code name} and {@code time}
+         */
+        // not @Whitelisted unless we know what files those are
+        public Map<String, Object> summarizeTests(FilePath dir, String includes, int limit) {
+            try {
+                return dir.act(new TestReportSummarizer(includes, limit));
+            } catch (IOException e) {
+                scanFailed("summarizeTests(\"" + dir + "\", \"" + includes + "\")", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                listener.error(
+                        "Groovy Postbuild: summarizeTests(\"" + dir + "\", \"" + includes + "\") was interrupted.");
+                buildScriptFailed(e);
+            }
+            return null;
+        }
+
+        /**
+         * Replaces the text of the summaries created by the script with its sanitized form.
+         */
+        void sanitizeSummaries() {
+            for (Map.Entry<BadgeSummaryAction, Run<?, ?>> e : summaries) {
+                BadgeSummaryAction summary = e.getKey();
+                change(e.getValue(), b -> summary.setText(BadgeHtml.sanitize(summary.getText())));
+            }
+            summaries.clear();
+        }
+
+        /**
+         * Reports a scan which stopped before its end, and applies the script failure behavior.
+         */
+        private void scanFailed(String scan, IOException e) {
+            reportScanFailure(scan, e);
+            buildScriptFailed(e);
+        }
+
+        /**
+         * Reports a scan which stopped before its end.
+         */
+        void reportScanFailure(String scan, IOException e) {
+            if (e instanceof ScanBudget.ExceededException) {
+                listener.error("Groovy Postbuild: " + scan + " stopped, it " + e.getMessage() + ".");
+            } else if (e instanceof InterruptedIOException) {
+                listener.error("Groovy Postbuild: " + scan + " was interrupted.");
+            } else {
+                Functions.printStackTrace(e, listener.error("Groovy Postbuild: " + scan + " failed."));
+            }
+        }
+
         private Pattern compilePattern(String regexp) throws AbortException {
             Pattern pattern;
             try {
@@ -413,10 +1011,103 @@ public class GroovyPostbuildRecorder extends Recorder implements MatrixAggregata
             }
 
             groovyScript = null;
+            legacy = true;
         }
         return this;
     }
 
+    /**
+     * @return true if this recorder was read from the format of groovy-postbuild 1.x and its project not saved since
+     */
+    boolean isLegacy() {
+        return legacy;
+    }
+
+    /**
+     * Notes that the project holding this recorder was saved in the current format.
+     */
+    void clearLegacy() {
+        legacy = false;
+    }
+
+    /**
+     * Evaluates the script, with a class loader shared with other builds if it has a classpath.
+     */
+    private void evaluate(Run<?, ?> build, Binding binding, PostbuildTimingAction timing) throws Exception {
+        ClassLoader cl = Jenkins.getInstance().getPluginManager().uberClassLoader;
+        List<ClasspathEntry> classpath = script.getClasspath();
+        if (!classpath.isEmpty()) {
+            ScriptClassLoaderCache.Lease lease;
+            try (PostbuildTimingAction.Timer t =
+                    timing.time("class loader", PostbuildEvents.script(build, "class loader"))) {
+                // the checks SecureGroovyScript makes before creating its own loader
+                for (ClasspathEntry entry : classpath) {
+                    ScriptApproval.get().using(entry);
+                }
+                lease = ScriptClassLoaderCache.acquire(classpath, cl);
+            }
+            if (lease != null) {
+                try (lease;
+                        PostbuildTimingAction.Timer t = timing.time(
+                                "compilation and evaluation",
+                                PostbuildEvents.script(build, "compilation and evaluation"))) {
+                    getScriptWithoutClasspath().evaluate(lease.getLoader(), binding);
+                }
+                return;
+            }
+        }
+        try (PostbuildTimingAction.Timer t = timing.time(
+                "compilation and evaluation", PostbuildEvents.script(build, "compilation and evaluation"))) {
+            script.evaluate(cl, binding);
+        }
+    }
+
+    /**
+     * @return the script, with its classpath left to the loader it is evaluated with
+     */
+    private SecureGroovyScript getScriptWithoutClasspath() throws Descriptor.FormException {
+        SecureGroovyScript s = scriptWithoutClasspath;
+        if (s == null) {
+            s = new SecureGroovyScript(script.getScript(), script.isSandbox(), Collections.<ClasspathEntry>emptyList())
+                    .configuringWithNonKeyItem();
+            scriptWithoutClasspath = s;
+        }
+        return s;
+    }
+
+    /**
+     * Records which live patterns matched the log of the build in the index of its job,
+     * before the script runs so that it can count the current build.
+     * A pattern whose scan fails is left out for this build, without failing the script.
+     */
+    private void indexPatternHits(AbstractBuild<?, ?> build, BadgeManager badgeManager, BuildListener listener)
+            throws InterruptedException {
+        List<String> patterns = getLivePatternList();
+        if (patterns.isEmpty()) {
+            return;
+        }
+        List<String> checked = new ArrayList<String>();
+        List<String> matched = new ArrayList<String>();
+        for (String regexp : patterns) {
+            try {
+                if (badgeManager.findInLog(build, regexp) != null) {
+                    matched.add(regexp);
+                }
+                checked.add(regexp);
+            } catch (IOException e) {
+                badgeManager.reportScanFailure("indexing the live pattern \"" + regexp + "\"", e);
+            }
+        }
+        if (checked.isEmpty()) {
+            return;
+        }
+        try {
+            PatternHitIndex.of(build.getParent()).record(build, checked, matched);
+        } catch (IOException e) {
+            Functions.printStackTrace(e, listener.error("Groovy Postbuild: failed to index the live patterns."));
+        }
+    }
+
     @Override
     public final Action getProjectAction(final AbstractProject<?, ?> project) {
         return null;
@@ -430,6 +1121,19 @@ public class GroovyPostbuildRecorder extends Recorder implements MatrixAggregata
     @Override
     public final boolean perform(final AbstractBuild<?, ?> build, final Launcher launcher, final BuildListener listener)
             throws InterruptedException, IOException {
+        PostbuildEvents.PerformEvent event = PostbuildEvents.perform(build);
+        try {
+            return performScript(build, listener);
+        } finally {
+            if (event != null) {
+                event.commit();
+            }
+        }
+    }
+
+    private boolean performScript(AbstractBuild<?, ?> build, BuildListener listener)
+            throws InterruptedException, IOException {
+        long start = System.nanoTime();
         boolean scriptResult = true;
         LOGGER.fine("perform() called for script");
         LOGGER.fine("behavior: " + behavior);
@@ -449,19 +1153,38 @@ public class GroovyPostbuildRecorder extends Recorder implements MatrixAggregata
                 break; // same to 0
         }
         BadgeManager badgeManager = new BadgeManager(build, listener, scriptFailureResult);
-        ClassLoader cl = Jenkins.getInstance().getPluginManager().uberClassLoader;
-        Binding binding = new Binding();
-        binding.setVariable("manager", badgeManager);
-        try {
-            script.evaluate(cl, binding);
-        } catch (Exception e) {
-            // TODO could print more refined errors for UnapprovedUsageException and/or RejectedAccessException:
-            e.printStackTrace(listener.error("Failed to evaluate groovy script."));
-            badgeManager.buildScriptFailed(e);
-            scriptResult = false;
+        indexPatternHits(build, badgeManager, listener);
+        if (!getRules().isEmpty()) {
+            try {
+                scriptResult = badgeManager.applyRules(getRuleMatcher());
+            } catch (PatternSyntaxException e) {
+                e.printStackTrace(listener.error("Invalid log rule."));
+                badgeManager.buildScriptFailed(e);
+                scriptResult = false;
+            }
         }
-        for (Run<?, ?> b : badgeManager.builds) {
-            b.save();
+        // a job configured with rules only needs no Groovy compilation
+        if (Util.fixEmptyAndTrim(script.getScript()) != null) {
+            Binding binding = new Binding();
+            binding.setVariable("manager", badgeManager);
+            try {
+                evaluate(build, binding, badgeManager.getTiming());
+            } catch (Exception e) {
+                // TODO could print more refined errors for UnapprovedUsageException and/or RejectedAccessException:
+                e.printStackTrace(listener.error("Failed to evaluate groovy script."));
+                badgeManager.buildScriptFailed(e);
+                scriptResult = false;
+            }
+        }
+        badgeManager.sanitizeSummaries();
+        badgeManager.saveBuilds();
+        badgeManager.getTiming().addTotal(System.nanoTime() - start);
+        // saved with the build once it completes
+        PostbuildTimingAction timing = build.getAction(PostbuildTimingAction.class);
+        if (timing != null) {
+            timing.addAll(badgeManager.getTiming());
+        } else {
+            build.addAction(badgeManager.getTiming());
         }
 
         if (!scriptResult && scriptFailureResult.isWorseOrEqualTo(Result.FAILURE)) {
@@ -487,6 +1210,58 @@ public class GroovyPostbuildRecorder extends Recorder implements MatrixAggregata
         return runForMatrixParent;
     }
 
+    public List<BadgeRule> getRules() {
+        return rules != null ? rules : Collections.<BadgeRule>emptyList();
+    }
+
+    /**
+     * @param rules log rules applied before the script, in one pass over the build log
+     */
+    @DataBoundSetter
+    public void setRules(List<BadgeRule> rules) {
+        this.rules = rules != null && !rules.isEmpty() ? new ArrayList<BadgeRule>(rules) : null;
+        this.ruleMatcher = null;
+    }
+
+    private BadgeRuleMatcher getRuleMatcher() {
+        BadgeRuleMatcher matcher = ruleMatcher;
+        if (matcher == null) {
+            matcher = new BadgeRuleMatcher(getRules());
+            ruleMatcher = matcher;
+        }
+        return matcher;
+    }
+
+    public String getLivePatterns() {
+        return livePatterns;
+    }
+
+    /**
+     * @param livePatterns regular expressions, one per line, matched against the lines of the build log
+     *                     as they are written, for {@link BadgeManager#logContains(String)} to answer without reading it
+     */
+    @DataBoundSetter
+    public void setLivePatterns(String livePatterns) {
+        this.livePatterns = Util.fixEmptyAndTrim(livePatterns);
+    }
+
+    /**
+     * @return the live patterns, without blank lines
+     */
+    List<String> getLivePatternList() {
+        return splitLivePatterns(livePatterns);
+    }
+
+    static List<String> splitLivePatterns(String livePatterns) {
+        List<String> list = new ArrayList<String>();
+        for (String line : Util.fixNull(livePatterns).split("\\r?\\n")) {
+            if (!line.trim().isEmpty()) {
+                list.add(line.trim());
+            }
+        }
+        return list;
+    }
+
     /**
      * @param build
      * @param launcher
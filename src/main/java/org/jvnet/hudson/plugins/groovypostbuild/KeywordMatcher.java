@@ -0,0 +1,203 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds many literal keywords in a log with a single pass, using an Aho–Corasick automaton.
+ *
+ * Keywords are matched within lines, like the regular expressions of
+ * {@link GroovyPostbuildRecorder.BadgeManager#logContains(String)}.
+ * Automata are cached per keyword list, so scripts searching the same keywords in each build build them once.
+ */
+/*package*/ final class KeywordMatcher {
+    private static final LoadingCache<List<String>, KeywordMatcher> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(32)
+            .build(new CacheLoader<List<String>, KeywordMatcher>() {
+                @Override
+                public KeywordMatcher load(List<String> keywords) {
+                    return new KeywordMatcher(keywords);
+                }
+            });
+
+    private final List<String> keywords;
+
+    /** Transitions of each state. */
+    private final List<Map<Character, Integer>> next = new ArrayList<Map<Character, Integer>>();
+    /** Longest proper suffix state of each state. */
+    private final int[] fail;
+    /** Index of the keyword ending at each state, or -1. */
+    private final int[] keyword;
+    /** Nearest state reachable through failure links that ends a keyword, or -1. */
+    private final int[] output;
+
+    private KeywordMatcher(List<String> keywords) {
+        this.keywords = keywords;
+        List<Integer> ends = new ArrayList<Integer>();
+        next.add(new HashMap<Character, Integer>());
+        ends.add(-1);
+        for (int k = 0; k < keywords.size(); k++) {
+            String word = keywords.get(k);
+            int state = 0;
+            for (int i = 0; i < word.length(); i++) {
+                Integer target = next.get(state).get(word.charAt(i));
+                if (target == null) {
+                    target = next.size();
+                    next.add(new HashMap<Character, Integer>());
+                    ends.add(-1);
+                    next.get(state).put(word.charAt(i), target);
+                }
+                state = target;
+            }
+            ends.set(state, k);
+        }
+        int size = next.size();
+        fail = new int[size];
+        keyword = new int[size];
+        output = new int[size];
+        Arrays.fill(output, -1);
+        for (int s = 0; s < size; s++) {
+            keyword[s] = ends.get(s);
+        }
+        ArrayDeque<Integer> queue = new ArrayDeque<Integer>(next.get(0).values());
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> e : next.get(state).entrySet()) {
+                int child = e.getValue();
+                int f = state == 0 ? 0 : step(fail[state], e.getKey());
+                fail[child] = f;
+                output[child] = keyword[f] >= 0 ? f : output[f];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * @param keywords non-empty literals, duplicates are ignored
+     * @return a possibly shared matcher for the given keywords
+     */
+    static KeywordMatcher of(@NonNull List<String> keywords) {
+        List<String> distinct = new ArrayList<String>();
+        for (String k : keywords) {
+            if (k == null || k.isEmpty()) {
+                throw new IllegalArgumentException("Keywords must not be empty");
+            }
+            if (!distinct.contains(k)) {
+                distinct.add(k);
+            }
+        }
+        return CACHE.getUnchecked(List.copyOf(distinct));
+    }
+
+    private int step(int state, char c) {
+        while (true) {
+            Integer target = next.get(state).get(c);
+            if (target != null) {
+                return target;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+
+    /**
+     * Reads all lines, counting each occurrence of each keyword, overlapping ones included.
+     */
+    Result scan(BufferedReader reader) throws IOException {
+        return scan(reader, ScanBudget.start());
+    }
+
+    /**
+     * Reads all lines within a budget, counting each occurrence of each keyword, overlapping ones included.
+     *
+     * @throws ScanBudget.ExceededException if the scan is over budget before the end of the log
+     */
+    Result scan(BufferedReader reader, ScanBudget budget) throws IOException {
+        Result result = new Result();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            budget.check(line);
+            int state = 0;
+            for (int i = 0; i < line.length(); i++) {
+                state = step(state, line.charAt(i));
+                for (int s = keyword[state] >= 0 ? state : output[state]; s >= 0; s = output[s]) {
+                    int k = keyword[s];
+                    result.counts[k]++;
+                    if (result.firstLines[k] == null) {
+                        result.firstLines[k] = line;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Occurrences of the keywords of a {@link KeywordMatcher} in a log.
+     */
+    final class Result {
+        private final int[] counts = new int[keywords.size()];
+        private final String[] firstLines = new String[keywords.size()];
+
+        /**
+         * @return the number of occurrences of each keyword, in the order of the keywords
+         */
+        Map<String, Integer> getCounts() {
+            Map<String, Integer> map = new LinkedHashMap<String, Integer>();
+            for (int k = 0; k < counts.length; k++) {
+                map.put(keywords.get(k), counts[k]);
+            }
+            return map;
+        }
+
+        /**
+         * @return the first line containing each found keyword, in the order of the keywords
+         */
+        Map<String, String> getFirstLines() {
+            Map<String, String> map = new LinkedHashMap<String, String>();
+            for (int k = 0; k < firstLines.length; k++) {
+                if (firstLines[k] != null) {
+                    map.put(keywords.get(k), firstLines[k]);
+                }
+            }
+            return map;
+        }
+    }
+}
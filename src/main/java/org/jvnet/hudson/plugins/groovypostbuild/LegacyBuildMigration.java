@@ -0,0 +1,262 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Computer;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+
+/**
+ * Rewrites the {@code build.xml} of builds still holding actions of groovy-postbuild 2.3.1 and older.
+ *
+ * Those actions are converted by {@link GroovyPostbuildDescriptor#addAliases()} each time such a build is loaded,
+ * until the build happens to be saved. This task finds them once, on a bounded pool,
+ * and saves them in the current format, which Jenkins writes to a temporary file replacing the old one.
+ * Once a migration migrated every legacy build, a marker file keeps it from running again when Jenkins starts.
+ */
+/*package*/ final class LegacyBuildMigration {
+    private static final Logger LOGGER = Logger.getLogger(LegacyBuildMigration.class.getName());
+
+    /**
+     * Number of jobs migrated at a time.
+     */
+    static /* non-final for script console */ int PARALLELISM = SystemProperties.getInteger(
+            LegacyBuildMigration.class.getName() + ".parallelism",
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 4));
+
+    /**
+     * Whether to migrate legacy builds once the jobs are loaded.
+     */
+    static final boolean ON_STARTUP = SystemProperties.getBoolean(LegacyBuildMigration.class.getName() + ".onStartup");
+
+    private static final List<String> LEGACY_CLASSES = List.of(
+            "org.jvnet.hudson.plugins.groovypostbuild.GroovyPostbuildAction",
+            "org.jvnet.hudson.plugins.groovypostbuild.GroovyPostbuildSummaryAction");
+
+    private static final LegacyBuildMigration INSTANCE = new LegacyBuildMigration();
+
+    private final AtomicInteger jobs = new AtomicInteger();
+    private final AtomicInteger scanned = new AtomicInteger();
+    private final AtomicInteger found = new AtomicInteger();
+    private final AtomicInteger migrated = new AtomicInteger();
+    /** Legacy builds still running, which save themselves in the current format once they complete. */
+    private final AtomicInteger skipped = new AtomicInteger();
+
+    private final AtomicInteger failed = new AtomicInteger();
+
+    private Future<?> task;
+    private volatile boolean started;
+    private volatile boolean finished;
+
+    private LegacyBuildMigration() {}
+
+    static LegacyBuildMigration get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the file marking that no legacy build is left
+     */
+    static File markerFile() {
+        return new File(Jenkins.get().getRootDir(), LegacyBuildMigration.class.getName() + ".done");
+    }
+
+    /**
+     * Starts migrating in the background, unless a migration is running.
+     *
+     * @return false if a migration is running
+     */
+    synchronized boolean start() {
+        if (isRunning()) {
+            return false;
+        }
+        // long running, so not on the shared timer
+        task = Computer.threadPoolForRemoting.submit(this::run);
+        return true;
+    }
+
+    /**
+     * Starts migrating in the background when Jenkins starts, unless no legacy build was left last time.
+     */
+    void startOnStartup() {
+        if (markerFile().exists()) {
+            LOGGER.fine("Legacy groovy-postbuild build records were all migrated already");
+            return;
+        }
+        start();
+    }
+
+    synchronized boolean isRunning() {
+        return task != null && !task.isDone();
+    }
+
+    /**
+     * @return a line describing the progress of the last migration
+     */
+    @NonNull
+    String getStatus() {
+        if (!started) {
+            return "Not run since Jenkins started.";
+        }
+        return (finished ? "Finished: " : isRunning() ? "Running: " : "Stopped: ")
+                + "scanned " + scanned + " builds of " + jobs + " jobs, found " + found + " legacy builds, migrated "
+                + migrated + ", skipped " + skipped + " running, failed " + failed + ".";
+    }
+
+    /**
+     * Migrates all jobs, waiting for the end.
+     */
+    void run() {
+        for (AtomicInteger counter : List.of(jobs, scanned, found, migrated, skipped, failed)) {
+            counter.set(0);
+        }
+        started = true;
+        finished = false;
+        ExecutorService pool = Executors.newFixedThreadPool(
+                Math.max(1, PARALLELISM),
+                new NamingThreadFactory(new DaemonThreadFactory(), "Groovy Postbuild legacy build migration"));
+        LOGGER.info("Migrating legacy groovy-postbuild build records");
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        try (ACLContext ctx = ACL.as2(ACL.SYSTEM2)) {
+            for (Job<?, ?> job : Jenkins.get().allItems(Job.class)) {
+                futures.add(pool.submit(() -> {
+                    try (ACLContext jobCtx = ACL.as2(ACL.SYSTEM2)) {
+                        migrate(job);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            finished = true;
+            if (failed.get() == 0 && skipped.get() == 0) {
+                markDone();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.WARNING, "Failed to migrate legacy build records", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            LOGGER.info(getStatus());
+        }
+    }
+
+    private static void markDone() {
+        File marker = markerFile();
+        try {
+            Files.writeString(marker.toPath(), Instant.now() + "\n", StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to write " + marker + ", legacy builds will be looked for again", e);
+        }
+    }
+
+    private void migrate(Job<?, ?> job) {
+        jobs.incrementAndGet();
+        File[] dirs = job.getBuildDir().listFiles();
+        if (dirs == null) {
+            return;
+        }
+        for (File dir : dirs) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            int number;
+            try {
+                number = Integer.parseInt(dir.getName());
+            } catch (NumberFormatException e) {
+                // lastSuccessfulBuild and other links, or not a build
+                continue;
+            }
+            File xml = new File(dir, "build.xml");
+            if (Files.isSymbolicLink(dir.toPath()) || !xml.isFile()) {
+                continue;
+            }
+            scanned.incrementAndGet();
+            try {
+                if (!isLegacy(xml)) {
+                    continue;
+                }
+                found.incrementAndGet();
+                Run<?, ?> run = job.getBuildByNumber(number);
+                if (run == null) {
+                    throw new IOException("Failed to load " + xml);
+                }
+                if (run.isBuilding()) {
+                    skipped.incrementAndGet();
+                    LOGGER.log(
+                            Level.INFO,
+                            "Skipped {0}, still running, it is saved once complete",
+                            run.getFullDisplayName());
+                    continue;
+                }
+                // skipped if a script saved the build meanwhile, which migrated it as well
+                BuildMutex.of(run).save(run, BuildMutex.now());
+                migrated.incrementAndGet();
+            } catch (IOException | RuntimeException e) {
+                failed.incrementAndGet();
+                LOGGER.log(Level.WARNING, "Failed to migrate " + job.getFullName() + " #" + number, e);
+            }
+        }
+    }
+
+    /**
+     * Tests whether a {@code build.xml} mentions a legacy action, without parsing it.
+     */
+    static boolean isLegacy(@NonNull File xml) throws IOException {
+        try (BufferedReader reader =
+                new BufferedReader(new InputStreamReader(Files.newInputStream(xml.toPath()), StandardCharsets.UTF_8))) {
+            for (int count :
+                    KeywordMatcher.of(LEGACY_CLASSES).scan(reader).getCounts().values()) {
+                if (count > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
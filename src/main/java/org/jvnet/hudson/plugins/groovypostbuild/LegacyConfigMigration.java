@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import hudson.model.AbstractProject;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+
+/**
+ * Saves the projects whose {@link GroovyPostbuildRecorder} was read from the format of groovy-postbuild 1.x.
+ *
+ * {@code GroovyPostbuildRecorder.readResolve} converts such recorders each time the project is loaded,
+ * resolving their classpath again, until the project happens to be saved.
+ * Projects loaded in memory already know whether they were converted, so finding them costs no parsing.
+ */
+/*package*/ final class LegacyConfigMigration {
+    private static final Logger LOGGER = Logger.getLogger(LegacyConfigMigration.class.getName());
+
+    private LegacyConfigMigration() {}
+
+    /**
+     * Saves all projects with a converted recorder, logging a summary.
+     *
+     * @return the number of saved projects
+     */
+    static int run() {
+        int checked = 0;
+        List<String> saved = new ArrayList<String>();
+        List<String> failed = new ArrayList<String>();
+        try (ACLContext ctx = ACL.as2(ACL.SYSTEM2)) {
+            for (AbstractProject<?, ?> project : Jenkins.get().allItems(AbstractProject.class)) {
+                checked++;
+                List<GroovyPostbuildRecorder> legacy = new ArrayList<GroovyPostbuildRecorder>();
+                for (GroovyPostbuildRecorder recorder :
+                        project.getPublishersList().getAll(GroovyPostbuildRecorder.class)) {
+                    if (recorder.isLegacy()) {
+                        legacy.add(recorder);
+                    }
+                }
+                if (legacy.isEmpty()) {
+                    continue;
+                }
+                try {
+                    project.save();
+                    for (GroovyPostbuildRecorder recorder : legacy) {
+                        recorder.clearLegacy();
+                    }
+                    saved.add(project.getFullName());
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Failed to save " + project.getFullName(), e);
+                    failed.add(project.getFullName());
+                }
+            }
+        }
+        if (!saved.isEmpty() || !failed.isEmpty()) {
+            LOGGER.log(
+                    Level.INFO,
+                    "Saved {0} of {1} projects in the current Groovy Postbuild format: {2}{3}",
+                    new Object[] {saved.size(), checked, saved, failed.isEmpty() ? "" : "; failed to save " + failed});
+        }
+        return saved.size();
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import com.google.common.hash.Hashing;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Run;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The hashes of the normalized lines of a log matching a regular expression, to find the lines of another log
+ * not seen in it.
+ *
+ * Lines are normalized like {@link FailureSignatures}, so lines differing only by numbers, hashes or paths are the same.
+ * Each distinct line takes 8 bytes, in a sorted array searched by bisection.
+ * The hashes of a completed build are saved next to it once per regular expression, so later builds comparing
+ * against it do not read its log again, as long as they were computed with the current normalization.
+ */
+/*package*/ final class LineFingerprints {
+    private static final Logger LOGGER = Logger.getLogger(LineFingerprints.class.getName());
+
+    /**
+     * Maximum number of new lines reported by {@link #newLines(BufferedReader, Pattern)}.
+     */
+    static final int MAX_NEW_LINES = 1000;
+
+    static final LineFingerprints EMPTY = new LineFingerprints(new long[0]);
+
+    private final long[] hashes;
+
+    private LineFingerprints(long[] hashes) {
+        this.hashes = hashes;
+    }
+
+    static long hash(@NonNull String line) {
+        return Hashing.murmur3_128()
+                .hashString(FailureSignatures.normalize(line), StandardCharsets.UTF_8)
+                .asLong();
+    }
+
+    /**
+     * Reads a log, keeping the hashes of its lines entirely matching the pattern.
+     */
+    @NonNull
+    static LineFingerprints scan(@NonNull BufferedReader reader, @NonNull Pattern pattern) throws IOException {
+        return scan(reader, pattern, ScanBudget.start());
+    }
+
+    /**
+     * Reads a log within a budget, keeping the hashes of its lines entirely matching the pattern.
+     *
+     * @throws ScanBudget.ExceededException if the scan is over budget before the end of the log
+     * @throws java.io.InterruptedIOException if the thread was interrupted
+     */
+    @NonNull
+    static LineFingerprints scan(@NonNull BufferedReader reader, @NonNull Pattern pattern, @NonNull ScanBudget budget)
+            throws IOException {
+        Matcher m = pattern.matcher("");
+        long[] hashes = new long[64];
+        int size = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            budget.check(line);
+            if (budget.matches(m, line)) {
+                if (size == hashes.length) {
+                    hashes = Arrays.copyOf(hashes, size * 2);
+                }
+                hashes[size++] = hash(line);
+            }
+        }
+        Arrays.sort(hashes, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || hashes[distinct - 1] != hashes[i]) {
+                hashes[distinct++] = hashes[i];
+            }
+        }
+        return new LineFingerprints(Arrays.copyOf(hashes, distinct));
+    }
+
+    int size() {
+        return hashes.length;
+    }
+
+    boolean contains(@NonNull String line) {
+        return Arrays.binarySearch(hashes, hash(line)) >= 0;
+    }
+
+    /**
+     * Reads a log, returning its lines entirely matching the pattern whose normalized form is neither in this set
+     * nor on an earlier line, up to {@link #MAX_NEW_LINES}.
+     */
+    @NonNull
+    List<String> newLines(@NonNull BufferedReader reader, @NonNull Pattern pattern) throws IOException {
+        return newLines(reader, pattern, ScanBudget.start());
+    }
+
+    /**
+     * Like {@link #newLines(BufferedReader, Pattern)}, within a budget.
+     *
+     * @throws ScanBudget.ExceededException if the scan is over budget before its end
+     * @throws java.io.InterruptedIOException if the thread was interrupted
+     */
+    @NonNull
+    List<String> newLines(@NonNull BufferedReader reader, @NonNull Pattern pattern, @NonNull ScanBudget budget)
+            throws IOException {
+        Matcher m = pattern.matcher("");
+        List<String> result = new ArrayList<String>();
+        Set<Long> reported = new HashSet<Long>();
+        String line;
+        while (result.size() < MAX_NEW_LINES && (line = reader.readLine()) != null) {
+            budget.check(line);
+            if (!budget.matches(m, line)) {
+                continue;
+            }
+            long hash = hash(line);
+            if (Arrays.binarySearch(hashes, hash) < 0 && reported.add(hash)) {
+                result.add(line);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the file holding the hashes of the lines of the build matching the regular expression
+     */
+    @NonNull
+    static File fileOf(@NonNull Run<?, ?> run, @NonNull String regexp) {
+        String key = Hashing.murmur3_128()
+                .hashString(regexp, StandardCharsets.UTF_8)
+                .toString()
+                .substring(0, 16);
+        return new File(run.getRootDir(), "groovy-postbuild-lines-" + key + ".bin");
+    }
+
+    /**
+     * Reads the hashes saved in a file. A truncated or otherwise unreadable file, or one saved with another
+     * {@link FailureSignatures#NORMALIZATION_VERSION}, is deleted, so the log it was computed from is scanned again.
+     *
+     * @return the hashes saved in the file, or null if there is no such file or it could not be read
+     */
+    @CheckForNull
+    static LineFingerprints read(@NonNull File f) {
+        if (!f.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(f.toPath())))) {
+            int version = in.readInt();
+            if (version != FailureSignatures.NORMALIZATION_VERSION) {
+                throw new OtherVersionException("Saved with normalization version " + version);
+            }
+            int count = in.readInt();
+            if (count < 0 || f.length() != 8 + 8L * count) {
+                throw new IOException("Expected " + count + " hashes but the file has " + f.length() + " bytes");
+            }
+            long[] hashes = new long[count];
+            for (int i = 0; i < hashes.length; i++) {
+                hashes[i] = in.readLong();
+            }
+            return new LineFingerprints(hashes);
+        } catch (IOException e) {
+            // expected once after an upgrade changing the normalization
+            Level level = e instanceof OtherVersionException ? Level.FINE : Level.WARNING;
+            LOGGER.log(level, "Failed to read " + f + ", the log will be scanned again", e);
+            try {
+                Files.deleteIfExists(f.toPath());
+            } catch (IOException x) {
+                LOGGER.log(Level.WARNING, "Failed to delete " + f, x);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Saves the hashes, replacing the file at once so concurrent readers never see part of it.
+     */
+    void write(@NonNull File f) throws IOException {
+        Path tmp = Files.createTempFile(f.getParentFile().toPath(), f.getName(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(FailureSignatures.NORMALIZATION_VERSION);
+                out.writeInt(hashes.length);
+                for (long hash : hashes) {
+                    out.writeLong(hash);
+                }
+            }
+            Files.move(tmp, f.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    private static final class OtherVersionException extends IOException {
+        OtherVersionException(String message) {
+            super(message);
+        }
+    }
+}
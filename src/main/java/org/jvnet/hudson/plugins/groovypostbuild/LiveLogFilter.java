@@ -0,0 +1,316 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.console.ConsoleLogFilter;
+import hudson.model.AbstractBuild;
+import hudson.model.Run;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import jenkins.util.SystemProperties;
+
+/**
+ * Matches the live patterns of {@link GroovyPostbuildRecorder}s against the lines of the build log as they are written,
+ * so that {@link GroovyPostbuildRecorder.BadgeManager#getLogMatcher(String)} answers for them without reading the log.
+ *
+ * Output is written through first, and lines are only matched against the patterns not found yet.
+ * A pattern is no longer answered for once a line could not be matched, for example because it was too long;
+ * the log is read as before then.
+ */
+@Extension(ordinal = 100) // first to decorate the file, so it sees the lines as they are written to it
+public class LiveLogFilter extends ConsoleLogFilter {
+    private static final Logger LOGGER = Logger.getLogger(LiveLogFilter.class.getName());
+
+    /**
+     * Longer lines are not matched.
+     */
+    static /* non-final for script console */ int MAX_LINE_LENGTH =
+            SystemProperties.getInteger(LiveLogFilter.class.getName() + ".maxLineLength", 64 * 1024);
+
+    /**
+     * Maximum time matching a line may take, in milliseconds, before the patterns are left to the script.
+     */
+    static /* non-final for script console */ long MAX_LINE_MILLIS =
+            SystemProperties.getLong(LiveLogFilter.class.getName() + ".maxLineMillis", 100L);
+
+    private static final Cache<Run<?, ?>, Hits> HITS =
+            CacheBuilder.newBuilder().weakKeys().build();
+
+    /**
+     * @return the patterns matched in the log of the build while it is written, or null
+     */
+    @CheckForNull
+    static Hits getHits(@NonNull Run<?, ?> build) {
+        return HITS.getIfPresent(build);
+    }
+
+    @Override
+    public OutputStream decorateLogger(Run build, OutputStream logger) {
+        if (!(build instanceof AbstractBuild)) {
+            return logger;
+        }
+        List<String> regexps = livePatterns((AbstractBuild<?, ?>) build);
+        if (regexps.isEmpty()) {
+            return logger;
+        }
+        Charset charset = build.getCharset();
+        if (!LogScanner.isLineSplittable(charset)) {
+            return logger;
+        }
+        Hits hits;
+        try {
+            hits = new Hits(regexps, charset);
+        } catch (PatternSyntaxException e) {
+            LOGGER.log(Level.FINE, "Invalid live pattern for " + build, e);
+            return logger;
+        }
+        HITS.put(build, hits);
+        return new MatchingOutputStream(logger, build, hits);
+    }
+
+    private static List<String> livePatterns(AbstractBuild<?, ?> build) {
+        Set<String> regexps = new LinkedHashSet<String>();
+        for (GroovyPostbuildRecorder recorder :
+                build.getProject().getPublishersList().getAll(GroovyPostbuildRecorder.class)) {
+            regexps.addAll(recorder.getLivePatternList());
+        }
+        return new ArrayList<String>(regexps);
+    }
+
+    /**
+     * Writes through, then matches.
+     */
+    private static final class MatchingOutputStream extends FilterOutputStream {
+        private final Run<?, ?> build;
+        private final Hits hits;
+
+        MatchingOutputStream(OutputStream out, Run<?, ?> build, Hits hits) {
+            super(out);
+            this.build = build;
+            this.hits = hits;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            hits.feed(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            hits.feed(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // the build is over, scripts included
+            HITS.invalidate(build);
+            super.close();
+        }
+    }
+
+    /**
+     * The first line matching each live pattern of a build, so far.
+     */
+    static final class Hits {
+        private final List<String> regexps;
+        private final Pattern[] patterns;
+
+        /** Whether a pattern may be part of {@link #filter}, or must be matched on its own. */
+        private final boolean[] combinable;
+
+        private final String[] firstLines;
+        private final Charset charset;
+        private final ScanBudget budget = ScanBudget.start(0, 0, MAX_LINE_MILLIS);
+
+        /** The end of the line being written. */
+        private byte[] line = new byte[256];
+
+        private int length;
+
+        /** Whether the line being written is longer than {@link #MAX_LINE_LENGTH}. */
+        private boolean overflow;
+
+        /** Whether lines were skipped, in which case patterns not found yet may have matched them. */
+        private boolean incomplete;
+
+        private int remaining;
+
+        /** Alternation of the combinable patterns not found yet. */
+        private Pattern filter;
+
+        Hits(List<String> regexps, Charset charset) throws PatternSyntaxException {
+            this.regexps = List.copyOf(regexps);
+            this.patterns = new Pattern[regexps.size()];
+            this.combinable = new boolean[regexps.size()];
+            for (int i = 0; i < patterns.length; i++) {
+                patterns[i] = Pattern.compile(regexps.get(i));
+                combinable[i] = BadgeRuleMatcher.isCombinable(regexps.get(i));
+            }
+            this.firstLines = new String[patterns.length];
+            this.charset = charset;
+            this.remaining = patterns.length;
+            this.filter = combine();
+        }
+
+        synchronized void feed(byte[] b, int off, int len) {
+            if (remaining == 0 || incomplete) {
+                return;
+            }
+            int start = off;
+            int end = off + len;
+            for (int i = off; i < end; i++) {
+                if (b[i] == '\n') {
+                    append(b, start, i - start);
+                    endLine();
+                    if (remaining == 0 || incomplete) {
+                        return;
+                    }
+                    start = i + 1;
+                }
+            }
+            append(b, start, end - start);
+        }
+
+        private void append(byte[] b, int off, int len) {
+            if (overflow || len == 0) {
+                return;
+            }
+            if (length + len > MAX_LINE_LENGTH) {
+                overflow = true;
+                return;
+            }
+            if (length + len > line.length) {
+                line = Arrays.copyOf(line, Math.min(MAX_LINE_LENGTH, Math.max(line.length * 2, length + len)));
+            }
+            System.arraycopy(b, off, line, length, len);
+            length += len;
+        }
+
+        private void endLine() {
+            if (overflow) {
+                incomplete = true;
+            } else {
+                match(decode());
+            }
+            length = 0;
+            overflow = false;
+            if (line.length > 4096) {
+                line = new byte[256];
+            }
+        }
+
+        private String decode() {
+            int end = length > 0 && line[length - 1] == '\r' ? length - 1 : length;
+            return new String(line, 0, end, charset);
+        }
+
+        private void match(String text) {
+            try {
+                boolean filtered = filter != null && !budget.matches(filter.matcher(""), text);
+                int before = remaining;
+                for (int i = 0; i < patterns.length; i++) {
+                    if (firstLines[i] == null
+                            && (!filtered || !combinable[i])
+                            && budget.matches(patterns[i].matcher(""), text)) {
+                        firstLines[i] = text;
+                        remaining--;
+                    }
+                }
+                if (remaining != before) {
+                    filter = combine();
+                }
+            } catch (IOException e) {
+                // too slow for the build output, or the build is being interrupted
+                LOGGER.log(Level.FINE, "Stopped matching live patterns", e);
+                incomplete = true;
+            }
+        }
+
+        @CheckForNull
+        private Pattern combine() {
+            StringBuilder regex = new StringBuilder();
+            int combined = 0;
+            for (int i = 0; i < patterns.length; i++) {
+                if (firstLines[i] == null && combinable[i]) {
+                    if (regex.length() > 0) {
+                        regex.append('|');
+                    }
+                    regex.append("(?:").append(patterns[i].pattern()).append(')');
+                    combined++;
+                }
+            }
+            try {
+                return combined > 1 ? Pattern.compile(regex.toString()) : null;
+            } catch (PatternSyntaxException e) {
+                // for example the same group name in two patterns
+                return null;
+            }
+        }
+
+        /**
+         * @return whether {@link #firstMatch(String)} knows if the pattern matched a line so far
+         */
+        synchronized boolean isTracked(@NonNull String regexp) {
+            int i = regexps.indexOf(regexp);
+            return i >= 0 && (firstLines[i] != null || !incomplete);
+        }
+
+        /**
+         * @return the matcher for the first line entirely matching a tracked pattern so far,
+         *     including the line being written, or null
+         */
+        @CheckForNull
+        synchronized Matcher firstMatch(@NonNull String regexp) {
+            int i = regexps.indexOf(regexp);
+            String text = firstLines[i];
+            if (text == null && !overflow && length > 0) {
+                text = decode();
+            }
+            if (text == null) {
+                return null;
+            }
+            Matcher m = patterns[i].matcher(text);
+            return m.matches() ? m : null;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the lines around the lines of a log matching a pattern, reading the log once.
+ *
+ * Only the last lines before the current one are kept, in a ring buffer of the context size,
+ * so memory does not depend on the length of the log.
+ */
+/*package*/ final class LogExcerpts {
+    /**
+     * Maximum number of lines of context before and after a match.
+     */
+    static final int MAX_CONTEXT_LINES = 1000;
+
+    /**
+     * Lines longer than this are truncated in excerpts.
+     */
+    static final int MAX_LINE_LENGTH = 1024;
+
+    private LogExcerpts() {}
+
+    /**
+     * @see #scan(BufferedReader, Pattern, int, int, int, ScanBudget)
+     */
+    @NonNull
+    static List<String> scan(
+            @NonNull BufferedReader reader, @NonNull Pattern pattern, int before, int after, int maxMatches)
+            throws IOException {
+        return scan(reader, pattern, before, after, maxMatches, ScanBudget.start());
+    }
+
+    /**
+     * Excerpts include whole lines separated by {@code \n}.
+     * A match within the context of the previous one extends its excerpt, so no line is in two excerpts.
+     *
+     * @param before the number of lines to include before each matching line
+     * @param after the number of lines to include after each matching line
+     * @param maxMatches the number of matching lines after which the scan stops
+     * @return the excerpts, in the order of the log
+     * @throws ScanBudget.ExceededException if the scan is over budget before its end
+     * @throws java.io.InterruptedIOException if the thread was interrupted
+     */
+    @NonNull
+    static List<String> scan(
+            @NonNull BufferedReader reader,
+            @NonNull Pattern pattern,
+            int before,
+            int after,
+            int maxMatches,
+            @NonNull ScanBudget budget)
+            throws IOException {
+        if (before < 0 || before > MAX_CONTEXT_LINES || after < 0 || after > MAX_CONTEXT_LINES) {
+            throw new IllegalArgumentException("The context must be from 0 to " + MAX_CONTEXT_LINES + " lines");
+        }
+        if (maxMatches < 1) {
+            throw new IllegalArgumentException("At least one match must be allowed");
+        }
+        List<String> excerpts = new ArrayList<String>();
+        Matcher m = pattern.matcher("");
+        // the last lines not in an excerpt; while an excerpt is open, those following it
+        ArrayDeque<String> preceding = new ArrayDeque<String>(before);
+        StringBuilder excerpt = null;
+        int remainingAfter = 0;
+        int matches = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            budget.check(line);
+            String kept = line.length() > MAX_LINE_LENGTH ? line.substring(0, MAX_LINE_LENGTH) + "..." : line;
+            if (matches < maxMatches && budget.matches(m, line)) {
+                matches++;
+                if (excerpt == null) {
+                    excerpt = new StringBuilder();
+                }
+                // the context of this match, or the lines joining it to the open excerpt
+                for (String p : preceding) {
+                    excerpt.append(p).append('\n');
+                }
+                preceding.clear();
+                excerpt.append(kept).append('\n');
+                remainingAfter = after;
+            } else if (excerpt != null && remainingAfter > 0) {
+                excerpt.append(kept).append('\n');
+                remainingAfter--;
+            } else {
+                if (excerpt != null) {
+                    if (matches >= maxMatches) {
+                        excerpts.add(excerpt.substring(0, excerpt.length() - 1));
+                        return excerpts;
+                    }
+                    if (preceding.size() == before) {
+                        // too far for a later match to reach the excerpt with its context
+                        excerpts.add(excerpt.substring(0, excerpt.length() - 1));
+                        excerpt = null;
+                    }
+                }
+                if (before > 0) {
+                    if (preceding.size() == before) {
+                        preceding.removeFirst();
+                    }
+                    preceding.addLast(kept);
+                }
+            }
+        }
+        if (excerpt != null) {
+            excerpts.add(excerpt.substring(0, excerpt.length() - 1));
+        }
+        return excerpts;
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import com.google.common.io.ByteStreams;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.remoting.VirtualChannel;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import jenkins.MasterToSlaveFileCallable;
+import jenkins.util.SystemProperties;
+
+/**
+ * Searches logs line by line for regular expressions.
+ *
+ * Large local files are split in ranges of whole lines, which are scanned concurrently.
+ * Scans stop when they are over their {@link ScanBudget}.
+ */
+/*package*/ final class LogScanner {
+    /**
+     * Files at least this long are scanned in parallel.
+     */
+    static /* non-final for script console */ long PARALLEL_THRESHOLD =
+            SystemProperties.getLong(LogScanner.class.getName() + ".parallelThreshold", 256L * 1024 * 1024);
+
+    /**
+     * Maximum number of threads scanning logs at a time, for the whole controller.
+     * Values below 2 disable parallel scans.
+     */
+    static final int PARALLELISM = SystemProperties.getInteger(
+            LogScanner.class.getName() + ".parallelism",
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+    /**
+     * Minimum length of a range scanned by one task.
+     */
+    static /* non-final for script console */ long MIN_SEGMENT_LENGTH = 16L * 1024 * 1024;
+
+    private LogScanner() {}
+
+    /**
+     * @return the matcher for the first line entirely matching the pattern, or null
+     */
+    @CheckForNull
+    static Matcher firstMatch(@NonNull BufferedReader reader, @NonNull Pattern pattern) throws IOException {
+        return firstMatch(reader, pattern, ScanBudget.start());
+    }
+
+    /**
+     * @return the matcher for the first line entirely matching the pattern, or null
+     * @throws ScanBudget.ExceededException if the scan is over budget before a line matches
+     * @throws java.io.InterruptedIOException if the thread was interrupted
+     */
+    @CheckForNull
+    static Matcher firstMatch(@NonNull BufferedReader reader, @NonNull Pattern pattern, @NonNull ScanBudget budget)
+            throws IOException {
+        Matcher m = pattern.matcher("");
+        String line;
+        while ((line = reader.readLine()) != null) {
+            budget.check(line);
+            if (budget.matches(m, line)) {
+                return m;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true if {@link #firstMatch(File, Charset, Pattern)} would scan the file in parallel
+     */
+    static boolean isParallel(@NonNull File f, @NonNull Charset charset) {
+        return PARALLELISM > 1
+                && f.isFile()
+                && !f.getName().endsWith(".gz")
+                && f.length() >= PARALLEL_THRESHOLD
+                && isLineSplittable(charset);
+    }
+
+    /**
+     * Whether a newline byte always ends a line, so files can be split on it without decoding them.
+     */
+    static boolean isLineSplittable(@NonNull Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.newEncoder().maxBytesPerChar() == 1.0f;
+    }
+
+    /**
+     * Finds the first line of a file entirely matching the pattern,
+     * scanning its ranges in parallel if {@link #isParallel(File, Charset)}.
+     *
+     * @return the matcher for the first line entirely matching the pattern, or null
+     */
+    @CheckForNull
+    static Matcher firstMatch(@NonNull File f, @NonNull Charset charset, @NonNull Pattern pattern)
+            throws IOException, InterruptedException {
+        return firstMatch(f, charset, pattern, ScanBudget.start());
+    }
+
+    /**
+     * Finds the first line of a file entirely matching the pattern within a budget,
+     * scanning its ranges in parallel if {@link #isParallel(File, Charset)}.
+     *
+     * @return the matcher for the first line entirely matching the pattern, or null
+     * @throws ScanBudget.ExceededException if the scan is over budget before a line matches
+     */
+    @CheckForNull
+    static Matcher firstMatch(
+            @NonNull File f, @NonNull Charset charset, @NonNull Pattern pattern, @NonNull ScanBudget budget)
+            throws IOException, InterruptedException {
+        if (!isParallel(f, charset)) {
+            try (BufferedReader reader =
+                    new BufferedReader(new InputStreamReader(Files.newInputStream(f.toPath()), charset))) {
+                return firstMatch(reader, pattern, budget);
+            }
+        }
+        long size = f.length();
+        long[] starts = split(f, budget.getMaxLength() > 0 ? Math.min(size, budget.getMaxLength()) : size);
+        AtomicInteger matchedSegment = new AtomicInteger(Integer.MAX_VALUE);
+        List<Future<Matcher>> futures = new ArrayList<Future<Matcher>>();
+        for (int i = 0; i < starts.length - 1; i++) {
+            int segment = i;
+            long start = starts[i];
+            long length = starts[i + 1] - start;
+            ScanBudget rangeBudget = budget.forRange();
+            futures.add(Pool.get()
+                    .submit(() ->
+                            scanSegment(f, charset, pattern, segment, start, length, matchedSegment, rangeBudget)));
+        }
+        try {
+            for (Future<Matcher> future : futures) {
+                Matcher m = future.get();
+                if (m != null) {
+                    return m;
+                }
+            }
+            if (starts[starts.length - 1] < size) {
+                throw budget.lengthExceeded();
+            }
+            return null;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            // stops the scans still running, as pool threads ignore interruption
+            matchedSegment.set(-1);
+            for (Future<Matcher> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Finds the first line of a file entirely matching a pattern on the node holding the file,
+     * so that only the matching line is sent back.
+     */
+    static final class FirstMatchCallable extends MasterToSlaveFileCallable<String> {
+        private static final long serialVersionUID = 1L;
+
+        private final String regexp;
+        private final int flags;
+
+        @CheckForNull
+        private final String charset;
+
+        private final long maxLength;
+        private final long maxMillis;
+        private final long maxLineMillis;
+
+        /**
+         * @param charset the charset of the file, or null for the default charset of the node
+         */
+        FirstMatchCallable(@NonNull Pattern pattern, @CheckForNull Charset charset) {
+            this.regexp = pattern.pattern();
+            this.flags = pattern.flags();
+            this.charset = charset != null ? charset.name() : null;
+            // the limits configured on the controller apply
+            this.maxLength = ScanBudget.MAX_LENGTH;
+            this.maxMillis = ScanBudget.MAX_MILLIS;
+            this.maxLineMillis = ScanBudget.MAX_LINE_MILLIS;
+        }
+
+        /**
+         * @return the first line entirely matching the pattern, or null
+         */
+        @Override
+        public String invoke(File f, VirtualChannel channel) throws IOException, InterruptedException {
+            Matcher m = firstMatch(
+                    f,
+                    charset != null ? Charset.forName(charset) : Charset.defaultCharset(),
+                    Pattern.compile(regexp, flags),
+                    ScanBudget.start(maxLength, maxMillis, maxLineMillis));
+            return m != null ? m.group() : null;
+        }
+    }
+
+    /**
+     * Splits the beginning of a file in ranges starting at the beginning of lines.
+     *
+     * @param limit the length to split, extended to the end of the line it ends in
+     * @return the start offsets of the ranges, followed by the end of the last range
+     */
+    private static long[] split(File f, long limit) throws IOException {
+        long size = f.length();
+        List<Long> starts = new ArrayList<Long>();
+        starts.add(0L);
+        try (FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            if (limit < size) {
+                size = limit > 0 ? nextLineStart(channel, buffer, limit - 1, size) : 0;
+            }
+            int count = (int) Math.max(1, Math.min(PARALLELISM * 4L, size / MIN_SEGMENT_LENGTH));
+            for (int i = 1; i < count; i++) {
+                long offset = Math.max(size * i / count, starts.get(starts.size() - 1));
+                long start = nextLineStart(channel, buffer, offset, size);
+                if (start < size && start > starts.get(starts.size() - 1)) {
+                    starts.add(start);
+                }
+            }
+        }
+        starts.add(size);
+        long[] result = new long[starts.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = starts.get(i);
+        }
+        return result;
+    }
+
+    private static long nextLineStart(FileChannel channel, ByteBuffer buffer, long offset, long size)
+            throws IOException {
+        long position = offset;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    @CheckForNull
+    private static Matcher scanSegment(
+            File f,
+            Charset charset,
+            Pattern pattern,
+            int segment,
+            long start,
+            long length,
+            AtomicInteger matchedSegment,
+            ScanBudget budget)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            channel.position(start);
+            InputStream in = ByteStreams.limit(Channels.newInputStream(channel), length);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, charset));
+            Matcher m = pattern.matcher("");
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (matchedSegment.get() < segment) {
+                    // an earlier range already holds the first match, or the scan was abandoned
+                    return null;
+                }
+                budget.check(line);
+                if (budget.matches(m, line)) {
+                    matchedSegment.accumulateAndGet(segment, Math::min);
+                    return m;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Pool shared by all parallel scans, created on first use.
+     */
+    static final class Pool {
+        private static final ForkJoinPool POOL = new ForkJoinPool(
+                Math.max(1, PARALLELISM),
+                pool -> {
+                    ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    t.setName("Groovy Postbuild scan " + t.getPoolIndex());
+                    return t;
+                },
+                null,
+                false);
+
+        private Pool() {}
+
+        static ForkJoinPool get() {
+            return POOL;
+        }
+    }
+}
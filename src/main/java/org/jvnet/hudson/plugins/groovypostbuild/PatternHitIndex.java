@@ -0,0 +1,212 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Fingerprint;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+import hudson.util.XStream2;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records which live patterns of a job matched the log of which builds, so scripts can count them
+ * over many builds without reading their logs.
+ *
+ * Each job has one small file next to its builds, holding the numbers of the builds indexed
+ * and, for each pattern, the numbers of the builds whose log matched, as ranges like {@code 1-40,42}.
+ * Builds are added when their post-build step ends, and removed when they are deleted.
+ * Public for its {@link Extension} only.
+ */
+public final class PatternHitIndex {
+    private static final Logger LOGGER = Logger.getLogger(PatternHitIndex.class.getName());
+
+    static final String FILE_NAME = "groovy-postbuild-pattern-hits.xml";
+
+    private static final XStream2 XSTREAM = new XStream2();
+
+    static {
+        XSTREAM.alias("patternHits", PatternHitIndex.class);
+    }
+
+    private static final LoadingCache<Job<?, ?>, PatternHitIndex> INDEXES = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(new CacheLoader<Job<?, ?>, PatternHitIndex>() {
+                @Override
+                public PatternHitIndex load(Job<?, ?> job) {
+                    return read(job);
+                }
+            });
+
+    /** Numbers of the builds indexed. */
+    private String indexed = "";
+
+    /** Numbers of the builds matching each pattern. */
+    private final Map<String, String> hits = new TreeMap<String, String>();
+
+    private PatternHitIndex() {}
+
+    /**
+     * @return the index of the job, loaded once
+     */
+    @NonNull
+    static PatternHitIndex of(@NonNull Job<?, ?> job) {
+        return INDEXES.getUnchecked(job);
+    }
+
+    /**
+     * @return the file of the index, resolved each time as the job may have been renamed or moved since it was read
+     */
+    private static XmlFile fileOf(Job<?, ?> job) {
+        return new XmlFile(XSTREAM, new File(job.getRootDir(), FILE_NAME));
+    }
+
+    private static PatternHitIndex read(Job<?, ?> job) {
+        XmlFile file = fileOf(job);
+        PatternHitIndex index = null;
+        if (file.exists()) {
+            try {
+                index = (PatternHitIndex) file.read();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Failed to read " + file + ", builds will be indexed again", e);
+            }
+        }
+        if (index == null) {
+            index = new PatternHitIndex();
+        }
+        return index;
+    }
+
+    /**
+     * Records the patterns matching the log of a build, among those checked.
+     */
+    synchronized void record(
+            @NonNull Run<?, ?> run, @NonNull Collection<String> checked, @NonNull Collection<String> matched)
+            throws IOException {
+        int number = run.getNumber();
+        indexed = with(indexed, number);
+        for (String pattern : checked) {
+            String numbers = hits.getOrDefault(pattern, "");
+            hits.put(pattern, matched.contains(pattern) ? with(numbers, number) : without(numbers, number));
+        }
+        fileOf(run.getParent()).write(this);
+    }
+
+    synchronized void remove(@NonNull Run<?, ?> run) throws IOException {
+        int number = run.getNumber();
+        Fingerprint.RangeSet all = Fingerprint.RangeSet.fromString(indexed, true);
+        if (!all.includes(number)) {
+            return;
+        }
+        indexed = without(indexed, number);
+        hits.replaceAll((pattern, numbers) -> without(numbers, number));
+        fileOf(run.getParent()).write(this);
+    }
+
+    /**
+     * @return the numbers of the indexed builds from {@code from} to {@code to}, both included,
+     *     whose log matched the pattern, in ascending order
+     */
+    @NonNull
+    synchronized List<Integer> getHits(@NonNull String pattern, int from, int to) {
+        return numbers(hits.getOrDefault(pattern, ""), from, to);
+    }
+
+    /**
+     * @return the numbers of the indexed builds from {@code from} to {@code to}, both included, in ascending order
+     */
+    @NonNull
+    synchronized List<Integer> getIndexed(int from, int to) {
+        return numbers(indexed, from, to);
+    }
+
+    private static List<Integer> numbers(String ranges, int from, int to) {
+        List<Integer> result = new ArrayList<Integer>();
+        for (Fingerprint.Range r : Fingerprint.RangeSet.fromString(ranges, true).getRanges()) {
+            for (int n = Math.max(from, r.getStart()); n < r.getEnd() && n <= to; n++) {
+                result.add(n);
+            }
+        }
+        return result;
+    }
+
+    private static String with(String ranges, int number) {
+        Fingerprint.RangeSet set = Fingerprint.RangeSet.fromString(ranges, true);
+        set.add(number);
+        return format(set);
+    }
+
+    private static String without(String ranges, int number) {
+        Fingerprint.RangeSet set = Fingerprint.RangeSet.fromString(ranges, true);
+        set.removeAll(Fingerprint.RangeSet.fromString(Integer.toString(number), false));
+        return format(set);
+    }
+
+    private static String format(Fingerprint.RangeSet set) {
+        StringBuilder buf = new StringBuilder();
+        for (Fingerprint.Range r : set.getRanges()) {
+            if (buf.length() > 0) {
+                buf.append(',');
+            }
+            buf.append(r.getStart());
+            if (r.getEnd() - r.getStart() > 1) {
+                buf.append('-').append(r.getEnd() - 1);
+            }
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Removes deleted builds from the index of their job, if it has one.
+     */
+    @Extension
+    public static final class DeletionListener extends RunListener<Run<?, ?>> {
+        @Override
+        public void onDeleted(Run<?, ?> run) {
+            Job<?, ?> job = run.getParent();
+            if (INDEXES.getIfPresent(job) == null && !fileOf(job).exists()) {
+                return;
+            }
+            try {
+                of(job).remove(run);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to remove " + run + " from the pattern hit index", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Run;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events of the post-build step, to line its cost up with GC and I/O in a recording.
+ *
+ * Each factory method returns null, without allocating the event or computing any field,
+ * unless its event is enabled in a running recording.
+ * The events are enabled by default, with no threshold, in recordings started with the default settings.
+ */
+/*package*/ final class PostbuildEvents {
+    /*
+     * Never begun nor committed, only asked whether their type is enabled,
+     * which depends on the class and not on the instance.
+     */
+    private static final PerformEvent PERFORM = new PerformEvent();
+    private static final ScriptEvent SCRIPT = new ScriptEvent();
+    private static final LogScanEvent SCAN = new LogScanEvent();
+    private static final BadgeEvent BADGE = new BadgeEvent();
+    private static final SaveEvent SAVE = new SaveEvent();
+
+    private PostbuildEvents() {}
+
+    @NonNull
+    private static <E extends BuildEvent> E begin(@NonNull E event, @NonNull Run<?, ?> run) {
+        event.job = run.getParent().getFullName();
+        event.build = run.getNumber();
+        event.begin();
+        return event;
+    }
+
+    @CheckForNull
+    static PerformEvent perform(@NonNull Run<?, ?> run) {
+        return PERFORM.isEnabled() ? begin(new PerformEvent(), run) : null;
+    }
+
+    @CheckForNull
+    static ScriptEvent script(@NonNull Run<?, ?> run, @NonNull String phase) {
+        if (!SCRIPT.isEnabled()) {
+            return null;
+        }
+        ScriptEvent event = new ScriptEvent();
+        event.phase = phase;
+        return begin(event, run);
+    }
+
+    /**
+     * @param pattern the regular expression searched, or null if the scan searches something else
+     */
+    @CheckForNull
+    static LogScanEvent scan(@NonNull Run<?, ?> run, @NonNull String scan, @CheckForNull String pattern) {
+        if (!SCAN.isEnabled()) {
+            return null;
+        }
+        LogScanEvent event = new LogScanEvent();
+        event.scan = scan;
+        event.pattern = pattern;
+        return begin(event, run);
+    }
+
+    @CheckForNull
+    static BadgeEvent badge(@NonNull Run<?, ?> run) {
+        return BADGE.isEnabled() ? begin(new BadgeEvent(), run) : null;
+    }
+
+    @CheckForNull
+    static SaveEvent save(@NonNull Run<?, ?> run) {
+        return SAVE.isEnabled() ? begin(new SaveEvent(), run) : null;
+    }
+
+    @Category({"Jenkins", "Groovy Postbuild"})
+    @StackTrace(false)
+    abstract static class BuildEvent extends Event {
+        @Label("Job")
+        String job;
+
+        @Label("Build")
+        int build;
+
+        /**
+         * Ends and commits the event, once its phase read that many bytes, or -1 if unknown.
+         */
+        void finish(long bytes) {
+            commit();
+        }
+    }
+
+    @Name("org.jvnet.hudson.plugins.groovypostbuild.Perform")
+    @Label("Groovy Postbuild")
+    @Description("The post-build step of a build: log rules, script and saves")
+    static final class PerformEvent extends BuildEvent {}
+
+    @Name("org.jvnet.hudson.plugins.groovypostbuild.Script")
+    @Label("Groovy Postbuild Script")
+    @Description("Getting the class loader of the script, or compiling and evaluating it")
+    static final class ScriptEvent extends BuildEvent {
+        @Label("Phase")
+        String phase;
+    }
+
+    @Name("org.jvnet.hudson.plugins.groovypostbuild.LogScan")
+    @Label("Groovy Postbuild Log Scan")
+    @Description("A search of a build log by the script or the log rules")
+    static final class LogScanEvent extends BuildEvent {
+        @Label("Scan")
+        String scan;
+
+        @Label("Pattern")
+        String pattern;
+
+        @Label("Bytes Read")
+        @DataAmount
+        long bytes = -1;
+
+        @Label("Matched")
+        boolean matched;
+
+        @Override
+        void finish(long bytes) {
+            this.bytes = bytes;
+            commit();
+        }
+    }
+
+    @Name("org.jvnet.hudson.plugins.groovypostbuild.BadgeChange")
+    @Label("Groovy Postbuild Badge Change")
+    @Description("A change of the badges, summaries or result of a build, including the wait for other scripts")
+    @StackTrace(true)
+    static final class BadgeEvent extends BuildEvent {}
+
+    @Name("org.jvnet.hudson.plugins.groovypostbuild.Save")
+    @Label("Groovy Postbuild Save")
+    @Description("Saving a build changed by the script")
+    static final class SaveEvent extends BuildEvent {}
+}
@@ -0,0 +1,286 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import com.google.common.io.CountingInputStream;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Api;
+import hudson.model.Run;
+import io.jenkins.plugins.ionicons.Ionicons;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import jenkins.model.RunAction2;
+import jenkins.util.SystemProperties;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * Time spent in each phase of the post-build step of a build, to find out why it was slow.
+ *
+ * Phases of the same name, like the changes of badges, are added up.
+ * Phases nest, like the scans run by the script within its evaluation, so the total is measured on its own.
+ * Past {@link #MAX_PHASES} names, as scans and saves are named after their pattern or build,
+ * phases are added up by kind, like {@code logContains (others)}; Flight Recorder events keep the details.
+ */
+@ExportedBean
+public class PostbuildTimingAction implements RunAction2 {
+    /**
+     * Number of phases recorded by name, before they are added up by kind.
+     */
+    static /* non-final for script console */ int MAX_PHASES =
+            SystemProperties.getInteger(PostbuildTimingAction.class.getName() + ".maxPhases", 50);
+
+    private final Map<String, Phase> phases = new LinkedHashMap<String, Phase>();
+
+    /** Time spent in the post-build steps, from their start to their end. */
+    private long totalNanos;
+
+    private transient Run<?, ?> run;
+
+    @Override
+    public String getIconFileName() {
+        return Ionicons.getIconClassName("timer-outline");
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Groovy Postbuild Timing";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "groovy-postbuild-timing";
+    }
+
+    @Override
+    public void onAttached(Run<?, ?> r) {
+        run = r;
+    }
+
+    @Override
+    public void onLoad(Run<?, ?> r) {
+        run = r;
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    public Api getApi() {
+        return new Api(this);
+    }
+
+    /**
+     * @return the phases, in the order they first started
+     */
+    @Exported(inline = true)
+    public synchronized List<Phase> getPhases() {
+        return new ArrayList<Phase>(phases.values());
+    }
+
+    @Exported
+    public synchronized double getTotalMillis() {
+        return Phase.toMillis(totalNanos);
+    }
+
+    /**
+     * Adds the time spent in a whole post-build step.
+     */
+    synchronized void addTotal(long nanos) {
+        totalNanos += nanos;
+    }
+
+    /**
+     * Starts measuring a phase, recorded when the timer is closed.
+     */
+    @NonNull
+    Timer time(@NonNull String phase) {
+        return time(phase, null);
+    }
+
+    /**
+     * Starts measuring a phase, also committing the event when the timer is closed.
+     *
+     * @param event an event begun by {@link PostbuildEvents}, or null if it is not recorded
+     */
+    @NonNull
+    Timer time(@NonNull String phase, @CheckForNull PostbuildEvents.BuildEvent event) {
+        String name;
+        synchronized (this) {
+            // listed when it starts, before the phases nested in it
+            name = phase(phase).name;
+        }
+        return new Timer(name, event);
+    }
+
+    /**
+     * @return the phase of that name, or of its kind once there are too many phases
+     */
+    private Phase phase(String name) {
+        Phase phase = phases.get(name);
+        if (phase == null && phases.size() >= MAX_PHASES) {
+            name = kindOf(name) + " (others)";
+            phase = phases.get(name);
+        }
+        if (phase == null) {
+            phase = new Phase(name);
+            phases.put(name, phase);
+        }
+        return phase;
+    }
+
+    /**
+     * @return the name of the phase up to its arguments, like {@code logContains} or {@code save}
+     */
+    static String kindOf(String name) {
+        int end = name.length();
+        for (char c : new char[] {'(', ' '}) {
+            int i = name.indexOf(c);
+            if (i >= 0 && i < end) {
+                end = i;
+            }
+        }
+        return name.substring(0, end);
+    }
+
+    synchronized void add(@NonNull String name, long nanos, long bytes) {
+        Phase phase = phase(name);
+        phase.count++;
+        phase.nanos += nanos;
+        if (bytes >= 0) {
+            phase.bytes = Math.max(phase.bytes, 0) + bytes;
+        }
+    }
+
+    /**
+     * Adds the phases of another post-build step of the same build.
+     */
+    synchronized void addAll(@NonNull PostbuildTimingAction other) {
+        totalNanos += other.totalNanos;
+        for (Phase p : other.getPhases()) {
+            Phase phase = phase(p.name);
+            phase.count += p.count;
+            phase.nanos += p.nanos;
+            if (p.bytes >= 0) {
+                phase.bytes = Math.max(phase.bytes, 0) + p.bytes;
+            }
+        }
+    }
+
+    /**
+     * Measures one phase.
+     */
+    final class Timer implements AutoCloseable {
+        private final String phase;
+        private final PostbuildEvents.BuildEvent event;
+        private final long start = System.nanoTime();
+        private CountingInputStream counter;
+        private long bytes = -1;
+
+        private Timer(String phase, PostbuildEvents.BuildEvent event) {
+            this.phase = phase;
+            this.event = event;
+        }
+
+        /**
+         * Counts the bytes read from a stream during the phase.
+         */
+        @NonNull
+        InputStream count(@NonNull InputStream in) {
+            counter = new CountingInputStream(in);
+            return counter;
+        }
+
+        void setBytes(long bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Records whether the scan measured found what it searched.
+         */
+        void setMatched(boolean matched) {
+            if (event instanceof PostbuildEvents.LogScanEvent) {
+                ((PostbuildEvents.LogScanEvent) event).matched = matched;
+            }
+        }
+
+        @Override
+        public void close() {
+            long read = counter != null ? counter.getCount() : bytes;
+            add(phase, System.nanoTime() - start, read);
+            if (event != null) {
+                event.finish(read);
+            }
+        }
+    }
+
+    /**
+     * Time spent in one phase.
+     */
+    @ExportedBean(defaultVisibility = 2)
+    public static final class Phase {
+        private final String name;
+        private int count;
+        private long nanos;
+        private long bytes = -1;
+
+        Phase(String name) {
+            this.name = name;
+        }
+
+        @Exported
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the number of times the phase ran
+         */
+        @Exported
+        public int getCount() {
+            return count;
+        }
+
+        @Exported
+        public double getMillis() {
+            return toMillis(nanos);
+        }
+
+        /**
+         * @return the number of bytes read, or -1 if the phase reads nothing
+         */
+        @Exported
+        public long getBytes() {
+            return bytes;
+        }
+
+        static double toMillis(long nanos) {
+            return Math.round(nanos / 1000.0) / 1000.0;
+        }
+    }
+}
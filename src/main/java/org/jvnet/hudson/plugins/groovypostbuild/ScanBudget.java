@@ -0,0 +1,235 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.regex.Matcher;
+import jenkins.util.SystemProperties;
+
+/**
+ * Limits of one scan of a log: the length read, the time spent, and the time spent matching a single line.
+ *
+ * Scans check their budget for each line, so they also stop once the thread is interrupted,
+ * for example when the build is aborted.
+ * Lines are matched through a {@link CharSequence} checking the deadlines while a regular expression backtracks,
+ * so a pathological expression cannot hold a thread forever.
+ * A budget is used by one thread at a time.
+ */
+/*package*/ final class ScanBudget {
+    /**
+     * Maximum number of characters read by one scan, or 0 for no limit.
+     * Files scanned in parallel are limited to this number of bytes.
+     */
+    static /* non-final for script console */ long MAX_LENGTH =
+            SystemProperties.getLong(ScanBudget.class.getName() + ".maxLength", 0L);
+
+    /**
+     * Maximum duration of one scan in milliseconds, or 0 for no limit.
+     */
+    static /* non-final for script console */ long MAX_MILLIS =
+            SystemProperties.getLong(ScanBudget.class.getName() + ".maxMillis", 0L);
+
+    /**
+     * Maximum time spent matching a single line in milliseconds, or 0 for no limit.
+     */
+    static /* non-final for script console */ long MAX_LINE_MILLIS =
+            SystemProperties.getLong(ScanBudget.class.getName() + ".maxLineMillis", 0L);
+
+    /**
+     * Number of characters compared between two checks of the deadlines.
+     */
+    private static final int CHECK_INTERVAL = 4096;
+
+    private final long maxLength;
+    private final long maxMillis;
+    private final long deadline;
+    private final long maxLineMillis;
+    private final Guard guard = new Guard();
+    private long length;
+
+    private ScanBudget(long maxLength, long maxMillis, long deadline, long maxLineMillis) {
+        this.maxLength = maxLength;
+        this.maxMillis = maxMillis;
+        this.deadline = deadline;
+        this.maxLineMillis = maxLineMillis;
+    }
+
+    /**
+     * @return a budget for a scan starting now, with the configured limits
+     */
+    @NonNull
+    static ScanBudget start() {
+        return start(MAX_LENGTH, MAX_MILLIS, MAX_LINE_MILLIS);
+    }
+
+    /**
+     * @return a budget for a scan starting now, with the given limits, each 0 for no limit
+     */
+    @NonNull
+    static ScanBudget start(long maxLength, long maxMillis, long maxLineMillis) {
+        long deadline = maxMillis > 0 ? System.nanoTime() + maxMillis * 1000000L : Long.MAX_VALUE;
+        return new ScanBudget(maxLength, maxMillis, deadline, maxLineMillis);
+    }
+
+    /**
+     * @return a budget with the same deadlines, for a range of a file whose length is already limited
+     */
+    @NonNull
+    ScanBudget forRange() {
+        return new ScanBudget(0, maxMillis, deadline, maxLineMillis);
+    }
+
+    /**
+     * @return the maximum number of characters to read, or 0 for no limit
+     */
+    long getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Accounts for a line about to be scanned.
+     *
+     * @throws InterruptedIOException if the thread was interrupted
+     * @throws ExceededException if the scan is over budget
+     */
+    void check(@NonNull String line) throws IOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Log scan interrupted");
+        }
+        length += line.length() + 1;
+        if (maxLength > 0 && length > maxLength) {
+            throw lengthExceeded();
+        }
+        if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+            throw new ExceededException("took more than " + maxMillis + " ms");
+        }
+    }
+
+    @NonNull
+    ExceededException lengthExceeded() {
+        return new ExceededException("read more than " + maxLength + " characters");
+    }
+
+    /**
+     * Matches an entire line against the pattern of a matcher, within the deadlines.
+     *
+     * @param matcher reset to match the line; still usable once the scan is over
+     */
+    boolean matches(@NonNull Matcher matcher, @NonNull String line) throws IOException {
+        guard.arm(line);
+        try {
+            return matcher.reset(guard).matches();
+        } catch (Stop e) {
+            throw e.reason;
+        } finally {
+            guard.disarm();
+        }
+    }
+
+    /**
+     * Thrown when a scan is over budget.
+     */
+    static final class ExceededException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        ExceededException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Carries the reason of stopping a match through {@link Matcher}, which only lets unchecked exceptions through.
+     */
+    private static final class Stop extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private final IOException reason;
+
+        Stop(IOException reason) {
+            super(null, null, false, false);
+            this.reason = reason;
+        }
+    }
+
+    /**
+     * The line being matched, checking the deadlines while armed.
+     */
+    private final class Guard implements CharSequence {
+        private String line = "";
+        private long lineDeadline = Long.MAX_VALUE;
+        private boolean armed;
+        private int count;
+
+        void arm(String line) {
+            this.line = line;
+            long now = System.nanoTime();
+            lineDeadline = maxLineMillis > 0 ? now + maxLineMillis * 1000000L : Long.MAX_VALUE;
+            if (deadline != Long.MAX_VALUE && deadline - lineDeadline < 0) {
+                lineDeadline = deadline;
+            }
+            armed = true;
+        }
+
+        void disarm() {
+            armed = false;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (armed && ++count % CHECK_INTERVAL == 0) {
+                checkDeadline();
+            }
+            return line.charAt(index);
+        }
+
+        private void checkDeadline() {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new Stop(new InterruptedIOException("Log scan interrupted"));
+            }
+            if (lineDeadline != Long.MAX_VALUE && System.nanoTime() - lineDeadline > 0) {
+                throw new Stop(
+                        lineDeadline == deadline
+                                ? new ExceededException("took more than " + maxMillis + " ms")
+                                : new ExceededException("spent more than " + maxLineMillis + " ms matching a line"));
+            }
+        }
+
+        @Override
+        public int length() {
+            return line.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return line.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return line;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.util.SystemProperties;
+import org.jenkinsci.plugins.scriptsecurity.scripts.ClasspathEntry;
+
+/**
+ * Shares the class loaders of script classpaths between builds.
+ *
+ * Loaders are keyed by the ordered classpath and the checksums of its jars, and counted while scripts use them.
+ * A loader whose jars changed is closed once its last script ends; unused loaders are kept for a while,
+ * so that the next build of the same jobs reuses them.
+ * Classpaths with class directories or remote jars are not shared, as their content cannot be checked cheaply.
+ */
+/*package*/ final class ScriptClassLoaderCache {
+    private static final Logger LOGGER = Logger.getLogger(ScriptClassLoaderCache.class.getName());
+
+    /**
+     * Maximum number of unused loaders kept.
+     */
+    static /* non-final for script console */ int MAX_IDLE =
+            SystemProperties.getInteger(ScriptClassLoaderCache.class.getName() + ".maxIdle", 16);
+
+    /**
+     * Unused loaders are closed after this time, in milliseconds.
+     */
+    static /* non-final for script console */ long IDLE_MILLIS =
+            SystemProperties.getLong(ScriptClassLoaderCache.class.getName() + ".idleMillis", 30L * 60 * 1000);
+
+    /**
+     * Checksums of jars, keyed by their path, length and modification time, so each version is read once.
+     */
+    private static final LoadingCache<List<Object>, String> CHECKSUMS = CacheBuilder.newBuilder()
+            .maximumSize(1024)
+            .build(new CacheLoader<List<Object>, String>() {
+                @Override
+                public String load(List<Object> stamp) throws IOException {
+                    return Files.asByteSource(new File((String) stamp.get(0)))
+                            .hash(Hashing.sha256())
+                            .toString();
+                }
+            });
+
+    /**
+     * Guarded by the class.
+     */
+    private static final Map<List<String>, Entry> ENTRIES = new HashMap<List<String>, Entry>();
+
+    private ScriptClassLoaderCache() {}
+
+    /**
+     * Gets a loader for a classpath, creating it if no current one is shared.
+     *
+     * @param classpath approved entries
+     * @return a lease to close once the script ended, or null if the classpath cannot be shared
+     */
+    @CheckForNull
+    static Lease acquire(@NonNull List<ClasspathEntry> classpath, @NonNull ClassLoader parent) throws IOException {
+        List<URL> urls = new ArrayList<URL>();
+        List<String> key = new ArrayList<String>();
+        for (ClasspathEntry entry : classpath) {
+            URL url = entry.getURL();
+            if (!"file".equals(url.getProtocol())) {
+                return null;
+            }
+            File jar;
+            try {
+                jar = new File(url.toURI());
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                return null;
+            }
+            if (!jar.isFile()) {
+                return null;
+            }
+            urls.add(url);
+            key.add(url + "#" + checksum(jar));
+        }
+        synchronized (ScriptClassLoaderCache.class) {
+            long now = System.currentTimeMillis();
+            closeIdle(now);
+            Entry entry = ENTRIES.get(key);
+            if (entry == null || entry.parent != parent) {
+                // loaders of the previous versions of the jars are not reused anymore
+                for (Iterator<Map.Entry<List<String>, Entry>> it =
+                                ENTRIES.entrySet().iterator();
+                        it.hasNext(); ) {
+                    Entry e = it.next().getValue();
+                    if (e.urls.equals(urls)) {
+                        it.remove();
+                        if (e.refs == 0) {
+                            e.close();
+                        }
+                    }
+                }
+                entry = new Entry(urls, parent);
+                ENTRIES.put(key, entry);
+            }
+            entry.refs++;
+            return new Lease(key, entry);
+        }
+    }
+
+    private static String checksum(File jar) throws IOException {
+        try {
+            return CHECKSUMS.get(List.of(jar.getAbsolutePath(), jar.length(), jar.lastModified()));
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to read " + jar, e.getCause());
+        }
+    }
+
+    private static synchronized void release(List<String> key, Entry entry) {
+        entry.refs--;
+        if (entry.refs > 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (ENTRIES.get(key) != entry) {
+            // its jars changed meanwhile
+            entry.close();
+            return;
+        }
+        entry.idleSince = now;
+        closeIdle(now);
+    }
+
+    /**
+     * Closes the loaders unused for too long, and the oldest unused ones beyond {@link #MAX_IDLE}.
+     */
+    private static void closeIdle(long now) {
+        List<Map.Entry<List<String>, Entry>> idle = new ArrayList<Map.Entry<List<String>, Entry>>();
+        for (Map.Entry<List<String>, Entry> e : ENTRIES.entrySet()) {
+            if (e.getValue().refs == 0) {
+                idle.add(e);
+            }
+        }
+        idle.sort((a, b) -> Long.compare(a.getValue().idleSince, b.getValue().idleSince));
+        for (int i = 0; i < idle.size(); i++) {
+            Entry e = idle.get(i).getValue();
+            if (i < idle.size() - MAX_IDLE || now - e.idleSince > IDLE_MILLIS) {
+                ENTRIES.remove(idle.get(i).getKey());
+                e.close();
+            }
+        }
+    }
+
+    /**
+     * @return the number of cached loaders, used or not
+     */
+    static synchronized int size() {
+        return ENTRIES.size();
+    }
+
+    private static final class Entry {
+        private final List<URL> urls;
+        private final ClassLoader parent;
+        private final URLClassLoader loader;
+        private int refs;
+        private long idleSince;
+
+        Entry(List<URL> urls, ClassLoader parent) {
+            this.urls = urls;
+            this.parent = parent;
+            this.loader = new URLClassLoader(urls.toArray(new URL[0]), parent);
+        }
+
+        void close() {
+            try {
+                loader.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Failed to close the loader of " + urls, e);
+            }
+        }
+    }
+
+    /**
+     * Use of a shared loader by one script.
+     */
+    static final class Lease implements AutoCloseable {
+        private final List<String> key;
+        private final Entry entry;
+        private boolean closed;
+
+        private Lease(List<String> key, Entry entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+
+        ClassLoader getLoader() {
+            return entry.loader;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release(key, entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.groovy.GroovySandbox;
+import org.kohsuke.groovy.sandbox.GroovyInterceptor;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Runs tasks of scripts on items concurrently, on a pool shared by all scripts.
+ *
+ * Tasks run with the authentication of the calling script and, if it is sandboxed, in the sandbox too.
+ * Calls made from a task run in the calling thread, so nested calls cannot wait for each other.
+ */
+/*package*/ final class ScriptPool {
+    /**
+     * Maximum number of tasks running at a time, for the whole controller.
+     */
+    static final int PARALLELISM = SystemProperties.getInteger(
+            ScriptPool.class.getName() + ".parallelism",
+            Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+    private static final ThreadLocal<Boolean> IN_POOL = new ThreadLocal<Boolean>();
+
+    private ScriptPool() {}
+
+    /**
+     * Work done for one item, typically calling a closure of the script.
+     */
+    @FunctionalInterface
+    interface Task {
+        Object call(Object item) throws Exception;
+    }
+
+    /**
+     * Calls the task with each item, waiting for all calls to end.
+     *
+     * @return the result of each call, in the order of the items
+     * @throws Exception the first failure, in the order of the items, once the other calls were cancelled
+     */
+    @NonNull
+    static List<Object> map(@NonNull Collection<?> items, @NonNull Task task) throws Exception {
+        List<Object> results = new ArrayList<Object>(items.size());
+        if (Boolean.TRUE.equals(IN_POOL.get()) || items.size() < 2) {
+            for (Object item : items) {
+                results.add(task.call(item));
+            }
+            return results;
+        }
+        Authentication auth = Jenkins.getAuthentication2();
+        boolean sandboxed = !GroovyInterceptor.getApplicableInterceptors().isEmpty();
+        List<Future<Object>> futures = new ArrayList<Future<Object>>(items.size());
+        try {
+            for (Object item : items) {
+                futures.add(Holder.POOL.submit(() -> call(task, item, auth, sandboxed)));
+            }
+            for (Future<Object> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        } finally {
+            for (Future<Object> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static Object call(Task task, Object item, Authentication auth, boolean sandboxed) throws Exception {
+        IN_POOL.set(true);
+        try (ACLContext ctx = ACL.as2(auth)) {
+            if (sandboxed) {
+                // interceptors are registered per thread, so the sandbox would not apply otherwise
+                try (GroovySandbox.Scope scope = new GroovySandbox().enter()) {
+                    return task.call(item);
+                }
+            }
+            return task.call(item);
+        } finally {
+            IN_POOL.remove();
+        }
+    }
+
+    /**
+     * Pool created on first use.
+     */
+    private static final class Holder {
+        private static final ThreadPoolExecutor POOL = new ThreadPoolExecutor(
+                PARALLELISM,
+                PARALLELISM,
+                60,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new NamingThreadFactory(new DaemonThreadFactory(), "Groovy Postbuild script task"));
+
+        static {
+            POOL.allowCoreThreadTimeOut(true);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Util;
+import hudson.remoting.VirtualChannel;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import jenkins.MasterToSlaveFileCallable;
+
+/**
+ * Summarizes JUnit and TestNG XML reports matching a pattern under a directory, on the node holding them.
+ *
+ * Reports are streamed, so memory use does not depend on their size,
+ * and only the counts and a bounded number of test names are sent back.
+ */
+/*package*/ final class TestReportSummarizer extends MasterToSlaveFileCallable<Map<String, Object>> {
+    private static final long serialVersionUID = 1L;
+
+    private final String includes;
+    private final int limit;
+
+    /**
+     * @param includes Ant pattern of the reports, like {@code **}{@code /target/surefire-reports/*.xml}
+     * @param limit maximum number of slowest and of failing tests to report
+     */
+    TestReportSummarizer(@NonNull String includes, int limit) {
+        this.includes = includes;
+        this.limit = Math.max(0, limit);
+    }
+
+    /**
+     * @return the summary described in {@link Summary#toMap()}
+     */
+    @Override
+    public Map<String, Object> invoke(File dir, VirtualChannel channel) throws IOException, InterruptedException {
+        Summary summary = new Summary(limit);
+        if (dir.isDirectory()) {
+            String[] paths =
+                    Util.createFileSet(dir, includes).getDirectoryScanner().getIncludedFiles();
+            // names of failing tests are reported in a stable order
+            Arrays.sort(paths);
+            for (String path : paths) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                summary.add(new File(dir, path));
+            }
+        }
+        return summary.toMap();
+    }
+
+    private static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // reports are untrusted input
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Aggregates of the reports read so far.
+     */
+    static final class Summary {
+        private final int limit;
+        private final XMLInputFactory factory = newInputFactory();
+        private int files;
+        private int tests;
+        private int failures;
+        private int errors;
+        private int skipped;
+        private double time;
+        private final List<String> failing = new ArrayList<String>();
+        /** The slowest tests, the fastest of them first. */
+        private final PriorityQueue<Map.Entry<String, Double>> slowest =
+                new PriorityQueue<Map.Entry<String, Double>>(Map.Entry.comparingByValue());
+
+        Summary(int limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * Reads a JUnit or TestNG report. Other XML files are ignored.
+         */
+        void add(@NonNull File report) throws IOException {
+            try (InputStream in = Files.newInputStream(report.toPath())) {
+                XMLStreamReader reader = factory.createXMLStreamReader(in);
+                try {
+                    if (read(reader)) {
+                        files++;
+                    }
+                } finally {
+                    reader.close();
+                }
+            } catch (XMLStreamException e) {
+                throw new IOException("Failed to parse " + report, e);
+            }
+        }
+
+        /**
+         * @return false if the root element is not {@code testsuite}, {@code testsuites} or {@code testng-results},
+         *     without reading further
+         */
+        private boolean read(XMLStreamReader reader) throws XMLStreamException {
+            // past the prolog, which may have a DOCTYPE
+            while (!reader.isStartElement()) {
+                if (!reader.hasNext()) {
+                    return false;
+                }
+                reader.next();
+            }
+            String root = reader.getLocalName();
+            if (!root.equals("testsuite") && !root.equals("testsuites") && !root.equals("testng-results")) {
+                return false;
+            }
+            // TestNG names test methods after the enclosing <class>
+            String testngClass = null;
+            String testcase = null;
+            double testcaseTime = 0;
+            String outcome = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String element = reader.getLocalName();
+                    if (testcase != null) {
+                        // JUnit outcome of the current test case
+                        if (outcome == null
+                                && (element.equals("failure")
+                                        || element.equals("error")
+                                        || element.equals("skipped"))) {
+                            outcome = element;
+                        }
+                    } else if (element.equals("testcase")) {
+                        testcase = name(
+                                reader.getAttributeValue(null, "classname"), reader.getAttributeValue(null, "name"));
+                        testcaseTime = parse(reader.getAttributeValue(null, "time"), 1);
+                        outcome = null;
+                    } else if (element.equals("class")) {
+                        testngClass = reader.getAttributeValue(null, "name");
+                    } else if (element.equals("test-method")
+                            && !"true".equals(reader.getAttributeValue(null, "is-config"))) {
+                        String status = reader.getAttributeValue(null, "status");
+                        record(
+                                name(testngClass, reader.getAttributeValue(null, "name")),
+                                parse(reader.getAttributeValue(null, "duration-ms"), 1000),
+                                "FAIL".equals(status) ? "failure" : "SKIP".equals(status) ? "skipped" : null);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (reader.getLocalName().equals("testcase") && testcase != null) {
+                        record(testcase, testcaseTime, outcome);
+                        testcase = null;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private static String name(@CheckForNull String className, @CheckForNull String name) {
+            return className != null && !className.isEmpty() ? className + "." + name : String.valueOf(name);
+        }
+
+        private static double parse(@CheckForNull String value, int divisor) {
+            if (value == null) {
+                return 0;
+            }
+            try {
+                return Double.parseDouble(value.replace(",", "")) / divisor;
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        private void record(String name, double duration, @CheckForNull String outcome) {
+            tests++;
+            time += duration;
+            if ("skipped".equals(outcome)) {
+                skipped++;
+                return;
+            }
+            if ("failure".equals(outcome) || "error".equals(outcome)) {
+                if (outcome.equals("failure")) {
+                    failures++;
+                } else {
+                    errors++;
+                }
+                if (failing.size() < limit) {
+                    failing.add(name);
+                }
+            }
+            if (limit > 0 && (slowest.size() < limit || slowest.peek().getValue() < duration)) {
+                if (slowest.size() == limit) {
+                    slowest.poll();
+                }
+                slowest.add(Map.entry(name, duration));
+            }
+        }
+
+        /**
+         * @return a map with the numbers of {@code files}, {@code tests}, {@code failures}, {@code errors}
+         *     and {@code skipped} tests, the total {@code time} in seconds, the names of the first {@code failing}
+         *     tests and the {@code slowest} tests, each a map with its {@code name} and {@code time}, slowest first
+         */
+        Map<String, Object> toMap() {
+            List<Map.Entry<String, Double>> sorted = new ArrayList<Map.Entry<String, Double>>(slowest);
+            sorted.sort(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()));
+            List<Map<String, Object>> slowestTests = new ArrayList<Map<String, Object>>();
+            for (Map.Entry<String, Double> e : sorted) {
+                Map<String, Object> test = new LinkedHashMap<String, Object>();
+                test.put("name", e.getKey());
+                test.put("time", e.getValue());
+                slowestTests.add(test);
+            }
+            Map<String, Object> map = new LinkedHashMap<String, Object>();
+            map.put("files", files);
+            map.put("tests", tests);
+            map.put("failures", failures);
+            map.put("errors", errors);
+            map.put("skipped", skipped);
+            map.put("time", time);
+            map.put("failing", new ArrayList<String>(failing));
+            map.put("slowest", slowestTests);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+import org.junit.jupiter.api.Test;
+
+class BadgeRuleMatcherTest {
+
+    @Test
+    void matchesEachRuleOnce() throws Exception {
+        BadgeRule quoted = new BadgeRule("\\Qa.b\\E.*");
+        BadgeRule literal = new BadgeRule("c\\Qd");
+        literal.setLiteral(true);
+        BadgeRule absent = new BadgeRule("absent");
+        BadgeRuleMatcher matcher = new BadgeRuleMatcher(List.of(quoted, literal, absent));
+        assertEquals(
+                List.of(quoted, literal),
+                matcher.scan(new BufferedReader(new StringReader("axb\na.b one\nsee c\\Qd\na.b two\n"))));
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        assertThrows(PatternSyntaxException.class, () -> BadgeRuleMatcher.compile("error\\Q"));
+        assertThrows(
+                PatternSyntaxException.class,
+                () -> new BadgeRuleMatcher(List.of(new BadgeRule("x\\Q(\\E|\\Qy"), new BadgeRule("z"))));
+        assertEquals("\\\\Q", BadgeRuleMatcher.compile("\\\\Q").pattern());
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.jenkinsci.plugins.badge.action.BadgeSummaryAction;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Result;
+import hudson.model.TaskListener;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class ExternalBadgeSummaryActionTest {
+
+    private static final String LONG_TEXT = "<b>externalized</b>".repeat(10);
+
+    private int threshold;
+
+    @BeforeEach
+    void setUp() {
+        threshold = ExternalBadgeSummaryAction.THRESHOLD;
+        ExternalBadgeSummaryAction.THRESHOLD = 100;
+    }
+
+    @AfterEach
+    void tearDown() {
+        ExternalBadgeSummaryAction.THRESHOLD = threshold;
+    }
+
+    private static FreeStyleBuild buildWithSummaries(JenkinsRule j, String... texts) throws Exception {
+        FreeStyleBuild b = j.buildAndAssertSuccess(j.createFreeStyleProject());
+        GroovyPostbuildRecorder.BadgeManager manager =
+                new GroovyPostbuildRecorder.BadgeManager(b, TaskListener.NULL, Result.FAILURE);
+        for (String text : texts) {
+            manager.createSummary("info.gif").setText(text);
+        }
+        manager.saveBuilds();
+        return b;
+    }
+
+    private static File[] files(FreeStyleBuild b) {
+        File[] files = new File(b.getRootDir(), ExternalBadgeSummaryAction.DIRECTORY).listFiles();
+        return files != null ? files : new File[0];
+    }
+
+    private static String buildXml(FreeStyleBuild b) throws Exception {
+        return Files.readString(new File(b.getRootDir(), "build.xml").toPath(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void externalizesLongSummariesOnly(JenkinsRule j) throws Exception {
+        FreeStyleBuild b = buildWithSummaries(j, "short", LONG_TEXT);
+
+        List<BadgeSummaryAction> summaries = b.getActions(BadgeSummaryAction.class);
+        assertFalse(summaries.get(0) instanceof ExternalBadgeSummaryAction);
+        assertInstanceOf(ExternalBadgeSummaryAction.class, summaries.get(1));
+        assertEquals(1, files(b).length);
+        assertThat(buildXml(b), Matchers.containsString("short"));
+        assertThat(buildXml(b), Matchers.not(Matchers.containsString("externalized")));
+
+        FreeStyleProject p = b.getParent();
+        p._getRuns().purgeCache();
+        FreeStyleBuild reloaded = p.getBuildByNumber(b.getNumber());
+        summaries = reloaded.getActions(BadgeSummaryAction.class);
+        assertEquals("short", summaries.get(0).getText());
+        assertEquals(LONG_TEXT, summaries.get(1).getText());
+    }
+
+    @Test
+    void externalizingKeepsAllFields(JenkinsRule j) throws Exception {
+        FreeStyleBuild b = j.buildAndAssertSuccess(j.createFreeStyleProject());
+        b.addAction(new BadgeSummaryAction("summary-id", "info.gif", LONG_TEXT, "some-class", "color: red", "/link"));
+        ExternalBadgeSummaryAction.externalize(b);
+
+        BadgeSummaryAction summary = b.getAction(BadgeSummaryAction.class);
+        assertInstanceOf(ExternalBadgeSummaryAction.class, summary);
+        assertEquals("summary-id", summary.getId());
+        assertEquals("info.gif", summary.getIcon());
+        assertEquals("some-class", summary.getCssClass());
+        assertEquals("color: red", summary.getStyle());
+        assertEquals("/link", summary.getLink());
+        assertEquals(LONG_TEXT, summary.getText());
+    }
+
+    @Test
+    void missingFileReadsAsEmpty(JenkinsRule j) throws Exception {
+        FreeStyleBuild b = buildWithSummaries(j, LONG_TEXT);
+        Files.delete(files(b)[0].toPath());
+
+        FreeStyleProject p = b.getParent();
+        p._getRuns().purgeCache();
+        assertEquals(
+                "",
+                p.getBuildByNumber(b.getNumber())
+                        .getAction(BadgeSummaryAction.class)
+                        .getText());
+    }
+
+    @Test
+    void mutationAfterExternalization(JenkinsRule j) throws Exception {
+        FreeStyleBuild b = buildWithSummaries(j, LONG_TEXT);
+        BadgeSummaryAction summary = b.getAction(BadgeSummaryAction.class);
+
+        summary.appendText("<i>more</i>", false);
+        assertEquals(LONG_TEXT + "<i>more</i>", summary.getText());
+        assertEquals(LONG_TEXT + "<i>more</i>", Files.readString(files(b)[0].toPath(), StandardCharsets.UTF_8));
+
+        summary.setText("now short");
+        assertEquals("now short", summary.getText());
+        assertEquals(0, files(b).length);
+        b.save();
+        assertThat(buildXml(b), Matchers.containsString("now short"));
+
+        summary.setText(LONG_TEXT);
+        GroovyPostbuildRecorder.BadgeManager manager =
+                new GroovyPostbuildRecorder.BadgeManager(b, TaskListener.NULL, Result.FAILURE);
+        manager.saveBuilds();
+        assertEquals(1, files(b).length);
+        assertThat(buildXml(b), Matchers.not(Matchers.containsString("now short")));
+    }
+
+    @Test
+    void removingSummariesDeletesFiles(JenkinsRule j) throws Exception {
+        FreeStyleBuild b = buildWithSummaries(j, LONG_TEXT, LONG_TEXT);
+        assertEquals(2, files(b).length);
+
+        GroovyPostbuildRecorder.BadgeManager manager =
+                new GroovyPostbuildRecorder.BadgeManager(b, TaskListener.NULL, Result.FAILURE);
+        manager.removeSummary(0);
+        assertEquals(1, files(b).length);
+        manager.removeSummaries();
+        assertEquals(0, files(b).length);
+        manager.saveBuilds();
+        assertNull(b.getAction(BadgeSummaryAction.class));
+    }
+}
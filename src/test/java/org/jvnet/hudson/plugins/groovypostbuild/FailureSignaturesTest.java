@@ -0,0 +1,55 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class FailureSignaturesTest {
+
+    @Test
+    void masksVariableParts() {
+        assertEquals(
+                "ERROR: <path>:<n>: undefined reference to '<hash>'",
+                FailureSignatures.normalize("ERROR: /tmp/ws/foo.c:12: undefined reference to 'abc123def'"));
+        assertEquals(
+                "Test failed after <n> ms in <path>",
+                FailureSignatures.normalize("  Test  failed after 1234 ms in C:\\work\\a.txt"));
+        assertEquals("<path> line <n>", FailureSignatures.normalize("src/main/Foo.java line 42"));
+    }
+
+    @Test
+    void keepsWords() {
+        assertEquals("deadbeef is a word", FailureSignatures.normalize("deadbeef is a word"));
+        assertEquals("build <n>", FailureSignatures.normalize("build 1234567"));
+    }
+
+    @Test
+    void sameFailureHasSameSignature() {
+        assertEquals(
+                FailureSignatures.normalize("Connection to 10.0.0.12:8080 refused after 3 retries"),
+                FailureSignatures.normalize("Connection to 192.168.1.7:443 refused after 5 retries"));
+    }
+}
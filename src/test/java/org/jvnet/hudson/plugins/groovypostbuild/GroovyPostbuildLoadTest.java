@@ -0,0 +1,340 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import hudson.Launcher;
+import hudson.PluginWrapper;
+import hudson.matrix.AxisList;
+import hudson.matrix.MatrixBuild;
+import hudson.matrix.MatrixProject;
+import hudson.matrix.TextAxis;
+import hudson.model.AbstractBuild;
+import hudson.model.BuildListener;
+import hudson.model.FreeStyleProject;
+import hudson.model.Result;
+import hudson.model.Run;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+import net.sf.json.JSONObject;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.groovy.SecureGroovyScript;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestBuilder;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+/**
+ * Measures throughput and latency of many builds finishing at the same time.
+ *
+ * Skipped unless run with {@code -DgroovyPostbuild.loadTest=true}, for example
+ * {@code mvn test -Dtest=GroovyPostbuildLoadTest -DgroovyPostbuild.loadTest=true}.
+ * Each scenario writes a JSON report to {@code target/load-test/}, or the directory given by
+ * {@code groovyPostbuild.loadTest.reportDir}, to be compared with the reports of other versions.
+ * The sizes below can be changed with the system property of the same name, like
+ * {@code -DgroovyPostbuild.loadTest.largeLogMegabytes=512}.
+ */
+@WithJenkins
+@EnabledIfSystemProperty(named = "groovyPostbuild.loadTest", matches = "true")
+class GroovyPostbuildLoadTest {
+    private static final Logger LOGGER = Logger.getLogger(GroovyPostbuildLoadTest.class.getName());
+
+    private static final String PREFIX = "groovyPostbuild.loadTest.";
+
+    /** Number of jobs building at the same time. */
+    private static final int BUILDS = Integer.getInteger(PREFIX + "builds", 200);
+
+    /** Log size of each of the concurrent builds. */
+    private static final int LOG_KILOBYTES = Integer.getInteger(PREFIX + "logKilobytes", 1024);
+
+    /** Number of builds with a large log. */
+    private static final int LARGE_LOG_BUILDS = Integer.getInteger(PREFIX + "largeLogBuilds", 4);
+
+    /** Log size of each build with a large log. */
+    private static final int LARGE_LOG_MEGABYTES = Integer.getInteger(PREFIX + "largeLogMegabytes", 2048);
+
+    /** Number of values of the single axis of the matrix project. */
+    private static final int AXES = Integer.getInteger(PREFIX + "axes", 300);
+
+    /** Number of pipelines building at the same time. */
+    private static final int PIPELINES = Integer.getInteger(PREFIX + "pipelines", 50);
+
+    /** Number of calls to {@code manager} by each pipeline. */
+    private static final int PIPELINE_CALLS = Integer.getInteger(PREFIX + "pipelineCalls", 500);
+
+    private static final File REPORT_DIR = new File(System.getProperty(PREFIX + "reportDir", "target/load-test"));
+
+    private static final String SCRIPT = String.join("\n", new String[] {
+        "if (manager.logContains('.*ERROR: synthetic failure.*')) {",
+        "  manager.addWarningBadge('synthetic failure')",
+        "}",
+        "def counts = manager.countKeywords(['WARNING', 'ERROR'])",
+        "manager.addShortText(\"${counts['WARNING']} warnings\")"
+    });
+
+    private JenkinsRule j;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) throws Exception {
+        j = rule;
+        j.jenkins.setNumExecutors(Math.max(BUILDS, PIPELINES));
+    }
+
+    @Test
+    void concurrentBuilds() throws Exception {
+        List<Future<? extends Run<?, ?>>> futures = new ArrayList<>();
+        List<FreeStyleProject> projects = new ArrayList<>();
+        for (int i = 0; i < BUILDS; i++) {
+            projects.add(createProject("concurrent" + i, LOG_KILOBYTES * 1024L));
+        }
+        Measurement m = new Measurement();
+        for (FreeStyleProject p : projects) {
+            futures.add(p.scheduleBuild2(0));
+        }
+        m.report("concurrentBuilds", waitFor(futures), true);
+    }
+
+    @Test
+    void largeLogs() throws Exception {
+        List<Future<? extends Run<?, ?>>> futures = new ArrayList<>();
+        List<FreeStyleProject> projects = new ArrayList<>();
+        for (int i = 0; i < LARGE_LOG_BUILDS; i++) {
+            projects.add(createProject("large" + i, LARGE_LOG_MEGABYTES * 1024L * 1024));
+        }
+        Measurement m = new Measurement();
+        for (FreeStyleProject p : projects) {
+            futures.add(p.scheduleBuild2(0));
+        }
+        m.report("largeLogs", waitFor(futures), true);
+    }
+
+    @Test
+    void matrixAxes() throws Exception {
+        MatrixProject p = j.createProject(MatrixProject.class, "matrix");
+        String[] values = new String[AXES];
+        for (int i = 0; i < AXES; i++) {
+            values[i] = "value" + i;
+        }
+        p.setAxes(new AxisList(new TextAxis("axis", values)));
+        p.getBuildersList().add(new SyntheticLogBuilder(LOG_KILOBYTES * 1024L));
+        p.getPublishersList().add(createRecorder(SCRIPT, true));
+
+        Measurement m = new Measurement();
+        MatrixBuild b = p.scheduleBuild2(0).get();
+        List<Run<?, ?>> runs = new ArrayList<>(b.getExactRuns());
+        runs.add(b);
+        for (Run<?, ?> run : runs) {
+            assertEquals(Result.SUCCESS, run.getResult(), run.getFullDisplayName());
+        }
+        m.report("matrixAxes", runs, true);
+    }
+
+    @Test
+    void pipelines() throws Exception {
+        String script = String.join("\n", new String[] {
+            "echo 'ERROR: synthetic failure'",
+            "for (int i = 0; i < " + PIPELINE_CALLS + "; i++) {",
+            "  if (i % 10 == 0 && manager.logContains('.*ERROR: synthetic failure.*')) {",
+            "    manager.addShortText(\"hit ${i}\")",
+            "  } else {",
+            "    manager.getEnvVariable('BUILD_NUMBER')",
+            "  }",
+            "}"
+        });
+        List<WorkflowJob> jobs = new ArrayList<>();
+        for (int i = 0; i < PIPELINES; i++) {
+            WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "pipeline" + i);
+            p.setDefinition(new CpsFlowDefinition(script, true));
+            jobs.add(p);
+        }
+        List<Future<? extends Run<?, ?>>> futures = new ArrayList<>();
+        Measurement m = new Measurement();
+        for (WorkflowJob p : jobs) {
+            futures.add(p.scheduleBuild2(0));
+        }
+        // manager runs within the pipeline, which has no post-build step to measure apart
+        m.report("pipelines", waitFor(futures), false);
+    }
+
+    private FreeStyleProject createProject(String name, long logBytes) throws IOException {
+        FreeStyleProject p = j.createFreeStyleProject(name);
+        p.getBuildersList().add(new SyntheticLogBuilder(logBytes));
+        p.getPublishersList().add(createRecorder(SCRIPT, false));
+        return p;
+    }
+
+    private static GroovyPostbuildRecorder createRecorder(String script, boolean runForMatrixParent) {
+        return new GroovyPostbuildRecorder(
+                new SecureGroovyScript(script, true, Collections.emptyList()), 0, runForMatrixParent);
+    }
+
+    private static List<Run<?, ?>> waitFor(List<Future<? extends Run<?, ?>>> futures) throws Exception {
+        List<Run<?, ?>> runs = new ArrayList<>();
+        for (Future<? extends Run<?, ?>> future : futures) {
+            Run<?, ?> run = future.get();
+            assertEquals(Result.SUCCESS, run.getResult(), run.getFullDisplayName());
+            runs.add(run);
+        }
+        return runs;
+    }
+
+    /**
+     * Collects the metrics of one scenario, from its creation to {@link #report(String, List, boolean)}.
+     */
+    private final class Measurement {
+        private final long started;
+
+        Measurement() {
+            System.gc();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                pool.resetPeakUsage();
+            }
+            started = System.nanoTime();
+        }
+
+        /**
+         * @param postBuild whether to measure the post-build step of each build, as recorded by its timing action,
+         *     rather than the whole build
+         */
+        void report(String scenario, List<Run<?, ?>> runs, boolean postBuild) throws IOException {
+            double elapsedMinutes = (System.nanoTime() - started) / 60e9;
+            long heapPeak = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    heapPeak += pool.getPeakUsage().getUsed();
+                }
+            }
+            double[] latencies = new double[runs.size()];
+            long bytesRead = 0;
+            for (int i = 0; i < latencies.length; i++) {
+                Run<?, ?> run = runs.get(i);
+                if (!postBuild) {
+                    latencies[i] = run.getDuration();
+                    continue;
+                }
+                PostbuildTimingAction timing = run.getAction(PostbuildTimingAction.class);
+                assertNotNull(timing, run.getFullDisplayName());
+                latencies[i] = timing.getTotalMillis();
+                for (PostbuildTimingAction.Phase phase : timing.getPhases()) {
+                    bytesRead += Math.max(0, phase.getBytes());
+                }
+            }
+            Arrays.sort(latencies);
+
+            JSONObject report = new JSONObject();
+            report.put("scenario", scenario);
+            PluginWrapper plugin = j.jenkins.getPluginManager().getPlugin("groovy-postbuild");
+            report.put("version", plugin != null ? plugin.getVersion() : "unknown");
+            report.put("java", System.getProperty("java.version"));
+            report.put("processors", Runtime.getRuntime().availableProcessors());
+            report.put("builds", runs.size());
+            report.put("buildsPerMinute", runs.size() / elapsedMinutes);
+            report.put("measured", postBuild ? "post-build step" : "whole build");
+            report.put("p50Millis", percentile(latencies, 50));
+            report.put("p99Millis", percentile(latencies, 99));
+            report.put("maxMillis", latencies.length > 0 ? latencies[latencies.length - 1] : 0);
+            report.put("heapPeakBytes", heapPeak);
+            if (postBuild) {
+                report.put("bytesRead", bytesRead);
+            }
+            JSONObject parameters = new JSONObject();
+            for (String name : System.getProperties().stringPropertyNames()) {
+                if (name.startsWith(PREFIX)) {
+                    parameters.put(name.substring(PREFIX.length()), System.getProperty(name));
+                }
+            }
+            report.put("parameters", parameters);
+
+            Files.createDirectories(REPORT_DIR.toPath());
+            File f = new File(REPORT_DIR, scenario + ".json");
+            Files.writeString(f.toPath(), report.toString(2) + "\n", StandardCharsets.UTF_8);
+            LOGGER.info(() -> f + ": " + report);
+        }
+    }
+
+    /**
+     * @return the nearest-rank percentile of sorted values
+     */
+    private static double percentile(double[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Writes a log of the given size, with a warning every thousand lines and an error at the end.
+     */
+    private static final class SyntheticLogBuilder extends TestBuilder {
+        private static final byte[] BLOCK = createBlock();
+
+        private final long bytes;
+
+        SyntheticLogBuilder(long bytes) {
+            this.bytes = bytes;
+        }
+
+        private static byte[] createBlock() {
+            StringBuilder block = new StringBuilder();
+            for (int i = 0; block.length() < 1024 * 1024; i++) {
+                if (i % 1000 == 999) {
+                    block.append("WARNING: synthetic warning ").append(i).append('\n');
+                } else {
+                    block.append("[INFO] synthetic line ").append(i).append(" of a long build log\n");
+                }
+            }
+            return block.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener)
+                throws IOException, InterruptedException {
+            PrintStream logger = listener.getLogger();
+            for (long written = 0; written < bytes; written += BLOCK.length) {
+                logger.write(BLOCK, 0, (int) Math.min(BLOCK.length, bytes - written));
+            }
+            logger.println();
+            logger.println("ERROR: synthetic failure");
+            return true;
+        }
+    }
+}
@@ -31,22 +31,39 @@ import com.google.common.collect.Lists;
 import com.jenkinsci.plugins.badge.action.AbstractBadgeAction;
 import com.jenkinsci.plugins.badge.action.BadgeAction;
 import com.jenkinsci.plugins.badge.action.BadgeSummaryAction;
+import hudson.Launcher;
+import hudson.markup.MarkupFormatter;
 import hudson.markup.RawHtmlMarkupFormatter;
 import hudson.matrix.AxisList;
 import hudson.matrix.Combination;
 import hudson.matrix.MatrixBuild;
 import hudson.matrix.MatrixProject;
 import hudson.matrix.TextAxis;
+import hudson.model.AbstractBuild;
+import hudson.model.BuildListener;
 import hudson.model.Computer;
 import hudson.model.FreeStyleBuild;
 import hudson.model.FreeStyleProject;
 import hudson.model.Item;
 import hudson.model.Result;
+import hudson.model.Run;
+import hudson.model.TaskListener;
 import hudson.model.User;
 import hudson.util.VersionNumber;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import jenkins.security.QueueItemAuthenticatorConfiguration;
 import org.hamcrest.Matchers;
 import org.jenkinsci.plugins.scriptsecurity.sandbox.groovy.SecureGroovyScript;
@@ -59,6 +76,7 @@ import org.jvnet.hudson.test.Issue;
 import org.jvnet.hudson.test.JenkinsRule;
 import org.jvnet.hudson.test.MockAuthorizationStrategy;
 import org.jvnet.hudson.test.MockQueueItemAuthenticator;
+import org.jvnet.hudson.test.TestBuilder;
 import org.jvnet.hudson.test.UnstableBuilder;
 import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
 import org.jvnet.hudson.test.recipes.LocalData;
@@ -518,6 +536,30 @@ class GroovyPostbuildRecorderTest {
         }
     }
 
+    @Test
+    void testBadgeStylesAreShared() throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+
+        p.getPublishersList()
+                .add(new GroovyPostbuildRecorder(
+                        new SecureGroovyScript(
+                                "manager.addShortText('text', 'black', 'white', '1px', 'grey');",
+                                true, // sandbox
+                                Collections.emptyList()),
+                        2, // behavior
+                        false // runForMatrixParent
+                        ));
+
+        FreeStyleBuild b1 = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        FreeStyleBuild b2 = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        assertSame(
+                b1.getAction(BadgeAction.class).getStyle(),
+                b2.getAction(BadgeAction.class).getStyle());
+
+        BadgeAction loaded = (BadgeAction) Run.XSTREAM2.fromXML(Run.XSTREAM2.toXML(b1.getAction(BadgeAction.class)));
+        assertSame(b2.getAction(BadgeAction.class).getStyle(), loaded.getStyle());
+    }
+
     @Test
     void testAddShortText() throws Exception {
         FreeStyleProject p = j.createFreeStyleProject();
@@ -600,6 +642,54 @@ class GroovyPostbuildRecorderTest {
         assertNull(j.createWebClient().getPage(p).getElementById("should-be-untainted"));
     }
 
+    @Test
+    void testAddHtmlBadgeIsSanitizedOnce() throws Exception {
+        j.jenkins.setMarkupFormatter(RawHtmlMarkupFormatter.INSTANCE);
+        FreeStyleProject p = j.createFreeStyleProject();
+
+        p.getPublishersList()
+                .add(new GroovyPostbuildRecorder(
+                        new SecureGroovyScript(
+                                "manager.addHtmlBadge('<b>foobar</b><script>alert(\"exploit!\");</script>');",
+                                true, // sandbox
+                                Collections.emptyList()),
+                        2, // behavior
+                        false // runForMatrixParent
+                        ));
+
+        FreeStyleBuild b1 = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        FreeStyleBuild b2 = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        String text = b1.getAction(BadgeAction.class).getText();
+        assertThat(text, Matchers.containsString("<b>foobar</b>"));
+        assertThat(text, Matchers.not(Matchers.containsString("script")));
+        assertSame(text, b2.getAction(BadgeAction.class).getText());
+    }
+
+    @Test
+    void testAddHtmlBadgeWithNonIdempotentFormatter() throws Exception {
+        j.jenkins.setMarkupFormatter(new MarkupFormatter() {
+            @Override
+            public void translate(String markup, Writer output) throws IOException {
+                output.write("<p>" + markup + "</p>");
+            }
+        });
+        FreeStyleProject p = j.createFreeStyleProject();
+
+        p.getPublishersList()
+                .add(new GroovyPostbuildRecorder(
+                        new SecureGroovyScript(
+                                "manager.addHtmlBadge('<b>foobar</b>');",
+                                true, // sandbox
+                                Collections.emptyList()),
+                        2, // behavior
+                        false // runForMatrixParent
+                        ));
+
+        FreeStyleBuild b = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        // rendering wraps it once
+        assertEquals("<b>foobar</b>", b.getAction(BadgeAction.class).getText());
+    }
+
     @Test
     void testRemoveBadge() throws Exception {
         FreeStyleProject p = j.createFreeStyleProject();
@@ -712,6 +802,492 @@ class GroovyPostbuildRecorderTest {
         assertEquals(Collections.emptyList(), b.getActions(BadgeSummaryAction.class));
     }
 
+    @Test
+    void testBadgeBuilds() throws Exception {
+        ScriptApproval.get()
+                .approveSignature("method org.jvnet.hudson.plugins.groovypostbuild.GroovyPostbuildRecorder$BadgeManager"
+                        + " badgeBuilds java.util.Map java.lang.String");
+        FreeStyleProject p = j.createFreeStyleProject();
+        j.buildAndAssertSuccess(p);
+        j.buildAndAssertSuccess(p);
+
+        p.getPublishersList()
+                .add(new GroovyPostbuildRecorder(
+                        new SecureGroovyScript(
+                                "manager.badgeBuilds('1-2', text: 'flaky', icon: 'warning.gif')",
+                                true, // sandbox
+                                Collections.emptyList()),
+                        2, // behavior
+                        false // runForMatrixParent
+                        ));
+        FreeStyleBuild b = j.buildAndAssertSuccess(p);
+
+        assertEquals("flaky", p.getBuildByNumber(1).getAction(BadgeAction.class).getText());
+        assertEquals("flaky", p.getBuildByNumber(2).getAction(BadgeAction.class).getText());
+        assertNull(b.getAction(BadgeAction.class));
+    }
+
+    @Test
+    void testBadgeBuildsWithUnknownResult() throws Exception {
+        ScriptApproval.get()
+                .approveSignature("method org.jvnet.hudson.plugins.groovypostbuild.GroovyPostbuildRecorder$BadgeManager"
+                        + " badgeBuilds java.util.Map java.lang.String");
+        FreeStyleProject p = j.createFreeStyleProject();
+        j.buildAndAssertSuccess(p);
+
+        p.getPublishersList()
+                .add(new GroovyPostbuildRecorder(
+                        new SecureGroovyScript(
+                                "manager.badgeBuilds('1', text: 'flaky', result: 'SUCCES')",
+                                true, // sandbox
+                                Collections.emptyList()),
+                        2, // behavior
+                        false // runForMatrixParent
+                        ));
+        FreeStyleBuild b = j.assertBuildStatus(Result.FAILURE, p.scheduleBuild2(0));
+
+        j.assertLogContains("Unknown build result: SUCCES", b);
+        assertNull(p.getBuildByNumber(1).getAction(BadgeAction.class));
+    }
+
+    @Test
+    void testParallel() throws Exception {
+        ScriptApproval.get()
+                .approveSignature("method org.jvnet.hudson.plugins.groovypostbuild.GroovyPostbuildRecorder$BadgeManager"
+                        + " setBuildNumber int");
+        FreeStyleProject p = j.createFreeStyleProject();
+        j.buildAndAssertSuccess(p);
+        j.buildAndAssertSuccess(p);
+
+        p.getPublishersList()
+                .add(new GroovyPostbuildRecorder(
+                        new SecureGroovyScript(
+                                """
+                                def results = manager.parallel([1, 2, 3]) { n ->
+                                    manager.setBuildNumber(n)
+                                    manager.addShortText('build ' + n)
+                                    return n * 10
+                                }
+                                manager.addShortText(results.join(','))
+                                """,
+                                true, // sandbox
+                                Collections.emptyList()),
+                        2, // behavior
+                        false // runForMatrixParent
+                        ));
+        FreeStyleBuild b = j.buildAndAssertSuccess(p);
+
+        assertEquals("build 1", p.getBuildByNumber(1).getAction(BadgeAction.class).getText());
+        assertEquals("build 2", p.getBuildByNumber(2).getAction(BadgeAction.class).getText());
+        List<BadgeAction> badges = b.getActions(BadgeAction.class);
+        assertEquals(2, badges.size());
+        assertEquals("build 3", badges.get(0).getText());
+        assertEquals("10,20,30", badges.get(1).getText());
+    }
+
+    @Test
+    void testParallelIsSandboxed() throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        p.getPublishersList()
+                .add(new GroovyPostbuildRecorder(
+                        new SecureGroovyScript(
+                                "manager.parallel([1, 2]) { n -> manager.getJenkins() }",
+                                true, // sandbox
+                                Collections.emptyList()),
+                        2, // behavior
+                        false // runForMatrixParent
+                        ));
+
+        FreeStyleBuild b = j.assertBuildStatus(Result.FAILURE, p.scheduleBuild2(0));
+        j.assertLogContains("RejectedAccessException", b);
+    }
+
+    @Test
+    void testConcurrentManagersChangingSameBuild() throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        FreeStyleBuild b1 = j.buildAndAssertSuccess(p);
+        FreeStyleBuild b2 = j.buildAndAssertSuccess(p);
+        int count = 8;
+        long before = BuildMutex.now();
+        ExecutorService pool = Executors.newFixedThreadPool(count);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String text = "badge " + i;
+                futures.add(pool.submit(() -> {
+                    GroovyPostbuildRecorder.BadgeManager manager =
+                            new GroovyPostbuildRecorder.BadgeManager(b2, TaskListener.NULL, Result.FAILURE);
+                    manager.setBuildNumber(1);
+                    manager.addShortText(text);
+                    manager.saveBuilds();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(count, b1.getActions(BadgeAction.class).size());
+        String xml = Files.readString(new File(b1.getRootDir(), "build.xml").toPath());
+        for (int i = 0; i < count; i++) {
+            assertThat(xml, Matchers.containsString("badge " + i));
+        }
+        // saves of scripts which ended before the last save are skipped
+        assertFalse(BuildMutex.of(b1).save(b1, before));
+        assertTrue(BuildMutex.of(b1).save(b1, BuildMutex.now()));
+    }
+
+    @Test
+    void testRules() throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        p.getBuildersList().add(new TestBuilder() {
+            @Override
+            public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener) {
+                listener.getLogger().println("WARNING: deprecated (foo)");
+                listener.getLogger().println("tests: 3 failed");
+                return true;
+            }
+        });
+        BadgeRule deprecated = new BadgeRule("deprecated (foo)");
+        deprecated.setLiteral(true);
+        deprecated.setText("deprecation");
+        BadgeRule failed = new BadgeRule("tests: ([1-9]\\d*) failed");
+        failed.setBadge("error");
+        failed.setResult("UNSTABLE");
+        BadgeRule missing = new BadgeRule(".*missing.*");
+        missing.setBadge("info");
+        GroovyPostbuildRecorder recorder = new GroovyPostbuildRecorder(
+                new SecureGroovyScript("", true, Collections.emptyList()), // sandbox
+                2, // behavior
+                false // runForMatrixParent
+                );
+        recorder.setRules(Arrays.asList(deprecated, failed, missing));
+        p.getPublishersList().add(recorder);
+
+        FreeStyleBuild b = j.assertBuildStatus(Result.UNSTABLE, p.scheduleBuild2(0));
+        List<BadgeAction> badges = b.getActions(BadgeAction.class);
+        assertEquals(2, badges.size());
+        assertEquals("deprecation", badges.get(0).getText());
+        assertEquals("tests: ([1-9]\\d*) failed", badges.get(1).getText());
+
+        j.configRoundtrip(p);
+        recorder = p.getPublishersList().get(GroovyPostbuildRecorder.class);
+        assertEquals(3, recorder.getRules().size());
+        assertTrue(recorder.getRules().get(0).isLiteral());
+    }
+
+    @Test
+    void testLivePatterns() throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        p.getBuildersList().add(new TestBuilder() {
+            @Override
+            public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener) {
+                listener.getLogger().println("tests: 12 run");
+                listener.getLogger().println("tests: 3 failed");
+                listener.getLogger().print("tests: 2 skipped");
+                listener.getLogger().flush();
+                LiveLogFilter.Hits hits = LiveLogFilter.getHits(build);
+                assertNotNull(hits);
+                assertTrue(hits.isTracked("tests: (\\d+) failed"));
+                assertFalse(hits.isTracked(".*run"));
+                // the line being written is matched too
+                assertEquals("2", hits.firstMatch("tests: (\\d+) skipped").group(1));
+                listener.getLogger().println();
+                return true;
+            }
+        });
+        GroovyPostbuildRecorder recorder = new GroovyPostbuildRecorder(
+                new SecureGroovyScript(
+                        "def m = manager.getLogMatcher('tests: (\\\\d+) failed'); manager.addShortText(m.group(1));"
+                                + " if (!manager.logContains('.*missing.*')) { manager.addShortText('none') }",
+                        true, // sandbox
+                        Collections.emptyList()),
+                2, // behavior
+                false // runForMatrixParent
+                );
+        recorder.setLivePatterns("tests: (\\d+) failed\n.*missing.*\ntests: (\\d+) skipped\n");
+        p.getPublishersList().add(recorder);
+
+        FreeStyleBuild b = j.buildAndAssertSuccess(p);
+        List<BadgeAction> badges = b.getActions(BadgeAction.class);
+        assertEquals(2, badges.size());
+        assertEquals("3", badges.get(0).getText());
+        assertEquals("none", badges.get(1).getText());
+        assertNull(LiveLogFilter.getHits(b));
+
+        j.configRoundtrip(p);
+        recorder = p.getPublishersList().get(GroovyPostbuildRecorder.class);
+        assertEquals(3, recorder.getLivePatternList().size());
+    }
+
+    @Test
+    void testPatternHitIndex() throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        p.getBuildersList().add(new TestBuilder() {
+            @Override
+            public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener) {
+                if (build.getNumber() % 2 == 1) {
+                    listener.getLogger().println("FLAKY test retried");
+                }
+                return true;
+            }
+        });
+        GroovyPostbuildRecorder recorder = new GroovyPostbuildRecorder(
+                new SecureGroovyScript(
+                        "manager.addShortText(\"${manager.countPatternHits('FLAKY.*', 10)}/"
+                                + "${manager.countIndexedBuilds(10)}\".toString())",
+                        true, // sandbox
+                        Collections.emptyList()),
+                2, // behavior
+                false // runForMatrixParent
+                );
+        recorder.setLivePatterns("FLAKY.*");
+        p.getPublishersList().add(recorder);
+
+        j.buildAndAssertSuccess(p);
+        j.buildAndAssertSuccess(p);
+        FreeStyleBuild b3 = j.buildAndAssertSuccess(p);
+        assertEquals("2/3", b3.getAction(BadgeAction.class).getText());
+        assertTrue(new File(p.getRootDir(), PatternHitIndex.FILE_NAME).exists());
+
+        p.getBuildByNumber(1).delete();
+        assertEquals(List.of(3), PatternHitIndex.of(p).getHits("FLAKY.*", 1, 3));
+        assertEquals(List.of(2, 3), PatternHitIndex.of(p).getIndexed(1, 3));
+
+        p.renameTo("renamed");
+        j.buildAndAssertSuccess(p);
+        assertEquals(List.of(2, 3, 4), PatternHitIndex.of(p).getIndexed(1, 4));
+        assertThat(
+                Files.readString(new File(p.getRootDir(), PatternHitIndex.FILE_NAME).toPath()),
+                Matchers.containsString("<indexed>2-4</indexed>"));
+    }
+
+    @Test
+    void testPatternHitIndexSkipsFailedPatterns() throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        p.getBuildersList().add(new TestBuilder() {
+            @Override
+            public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener) {
+                listener.getLogger().println("FLAKY test retried");
+                return true;
+            }
+        });
+        GroovyPostbuildRecorder recorder = new GroovyPostbuildRecorder(
+                new SecureGroovyScript("", true, Collections.emptyList()),
+                2, // behavior
+                false // runForMatrixParent
+                );
+        recorder.setLivePatterns("FLAKY.*\n[");
+        p.getPublishersList().add(recorder);
+
+        FreeStyleBuild b = j.buildAndAssertSuccess(p);
+        j.assertLogContains("indexing the live pattern \"[\"", b);
+        assertEquals(List.of(1), PatternHitIndex.of(p).getHits("FLAKY.*", 1, 1));
+        assertEquals(List.of(), PatternHitIndex.of(p).getHits("[", 1, 1));
+    }
+
+    @Test
+    void testClassifyFailure() throws Exception {
+        FailureSignatures.get().add("ld: /src/a.c:12: undefined reference to 'f00ba12'", "link error", "error.gif");
+        FailureSignatures.get().add("Connection to 10.0.0.1:80 refused", "network", null);
+        FreeStyleProject p = j.createFreeStyleProject();
+        p.getBuildersList().add(new TestBuilder() {
+            @Override
+            public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener) {
+                listener.getLogger().println("compiling");
+                listener.getLogger().println("ld: /work/b.c:345: undefined reference to 'abc9876'");
+                listener.getLogger().println("ld: /work/c.c:7: undefined reference to 'def0123'");
+                return true;
+            }
+        });
+        p.getPublishersList()
+                .add(new GroovyPostbuildRecorder(
+                        new SecureGroovyScript(
+                                "manager.classifyFailure().each { manager.addBadge(it.icon, it.text) }",
+                                true, // sandbox
+                                Collections.emptyList()),
+                        2, // behavior
+                        false // runForMatrixParent
+                        ));
+
+        FreeStyleBuild b = j.buildAndAssertSuccess(p);
+        List<BadgeAction> badges = b.getActions(BadgeAction.class);
+        assertEquals(1, badges.size());
+        assertEquals("link error", badges.get(0).getText());
+        assertTrue(new File(j.jenkins.getRootDir(), FailureSignatures.class.getName() + ".xml").exists());
+    }
+
+    @Test
+    void testTiming() throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        p.getPublishersList()
+                .add(new GroovyPostbuildRecorder(
+                        new SecureGroovyScript(
+                                "if (manager.logContains('.*Building.*')) { manager.addShortText('found') }",
+                                true, // sandbox
+                                Collections.emptyList()),
+                        2, // behavior
+                        false // runForMatrixParent
+                        ));
+
+        FreeStyleBuild b = j.buildAndAssertSuccess(p);
+        PostbuildTimingAction timing = b.getAction(PostbuildTimingAction.class);
+        assertNotNull(timing);
+        List<String> names = new ArrayList<>();
+        for (PostbuildTimingAction.Phase phase : timing.getPhases()) {
+            names.add(phase.getName());
+        }
+        assertThat(
+                names,
+                Matchers.contains(
+                        "environment",
+                        "compilation and evaluation",
+                        "logContains(\".*Building.*\")",
+                        "badge changes",
+                        "save " + b.getFullDisplayName()));
+        assertThat(timing.getPhases().get(2).getBytes(), Matchers.greaterThan(0L));
+
+        JenkinsRule.WebClient wc = j.createWebClient();
+        wc.goTo(b.getUrl() + timing.getUrlName() + "/");
+        String json = wc.goTo(b.getUrl() + timing.getUrlName() + "/api/json", "application/json")
+                .getWebResponse()
+                .getContentAsString();
+        assertThat(json, Matchers.containsString("\"name\":\"badge changes\""));
+    }
+
+    @Test
+    void testBadgeIndex() throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        p.getPublishersList()
+                .add(new GroovyPostbuildRecorder(
+                        new SecureGroovyScript("manager.addWarningBadge('flaky-db')", true, Collections.emptyList()),
+                        2, // behavior
+                        false // runForMatrixParent
+                        ));
+        FreeStyleBuild b1 = j.buildAndAssertSuccess(p);
+        p.getPublishersList().clear();
+        j.buildAndAssertSuccess(p);
+        p.getPublishersList()
+                .add(new GroovyPostbuildRecorder(
+                        new SecureGroovyScript(
+                                "manager.addWarningBadge('flaky-db')\n"
+                                        + "manager.addShortText(\"${manager.getBadgedBuilds('flaky-db', 10)}\")",
+                                true, // sandbox
+                                Collections.emptyList()),
+                        2, // behavior
+                        false // runForMatrixParent
+                        ));
+        FreeStyleBuild b3 = j.buildAndAssertSuccess(p);
+        assertEquals("[1]", b3.getActions(BadgeAction.class).get(1).getText());
+
+        BadgeIndex index = BadgeIndex.of(p);
+        List<Integer> numbers = new ArrayList<>();
+        for (BadgeIndex.Entry e : index.search("flaky-db", null, 1, 3)) {
+            numbers.add(e.getNumber());
+        }
+        assertEquals(Arrays.asList(1, 3), numbers);
+        assertEquals(2, index.get(3).size());
+
+        String json = j.createWebClient()
+                .goTo(p.getUrl() + "groovy-postbuild-badges/search?text=flaky-db", "application/json")
+                .getWebResponse()
+                .getContentAsString();
+        assertThat(json, Matchers.containsString("\"number\":3"));
+
+        b1.delete();
+        assertEquals(1, index.search("flaky-db", null, 1, 3).size());
+        assertEquals(index.search(null, null, 1, 3), BadgeIndex.read(p).search(null, null, 1, 3));
+
+        File oldRootDir = p.getRootDir();
+        p.renameTo("renamed");
+        j.buildAndAssertSuccess(p);
+        assertFalse(oldRootDir.exists());
+        assertEquals(index.get(4), BadgeIndex.read(p).get(4));
+        assertEquals(1, BadgeIndex.read(p).get(4).size());
+        json = j.createWebClient()
+                .goTo(p.getUrl() + "groovy-postbuild-badges/search?text=flaky-db", "application/json")
+                .getWebResponse()
+                .getContentAsString();
+        assertThat(json, Matchers.containsString("\"number\":4"));
+    }
+
+    @Test
+    void testFlightRecorderEvents() throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        p.getPublishersList()
+                .add(new GroovyPostbuildRecorder(
+                        new SecureGroovyScript(
+                                "if (manager.logContains('.*Building.*')) { manager.addShortText('found') }",
+                                true, // sandbox
+                                Collections.emptyList()),
+                        2, // behavior
+                        false // runForMatrixParent
+                        ));
+
+        File dump = new File(j.jenkins.getRootDir(), "postbuild.jfr");
+        FreeStyleBuild b;
+        try (Recording recording = new Recording()) {
+            for (String event : new String[] {"Perform", "Script", "LogScan", "BadgeChange", "Save"}) {
+                recording.enable("org.jvnet.hudson.plugins.groovypostbuild." + event);
+            }
+            recording.start();
+            b = j.buildAndAssertSuccess(p);
+            recording.stop();
+            recording.dump(dump.toPath());
+        }
+        List<String> names = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(dump.toPath())) {
+            assertEquals(p.getFullName(), event.getString("job"));
+            assertEquals(b.getNumber(), event.getInt("build"));
+            String name = event.getEventType().getName();
+            names.add(name.substring(name.lastIndexOf('.') + 1));
+            if (name.endsWith(".LogScan")) {
+                assertEquals(".*Building.*", event.getString("pattern"));
+                assertTrue(event.getBoolean("matched"));
+                assertThat(event.getLong("bytes"), Matchers.greaterThan(0L));
+            }
+        }
+        assertThat(names, Matchers.hasItems("Perform", "Script", "LogScan", "BadgeChange", "Save"));
+    }
+
+    @Test
+    void testGetMatcherOnAgent() throws Exception {
+        ScriptApproval.get()
+                .approveSignature("method org.jvnet.hudson.plugins.groovypostbuild.GroovyPostbuildRecorder$BadgeManager"
+                        + " getBuild");
+        ScriptApproval.get()
+                .approveSignature("method org.jvnet.hudson.plugins.groovypostbuild.GroovyPostbuildRecorder$BadgeManager"
+                        + " getMatcher hudson.FilePath java.lang.String");
+        ScriptApproval.get().approveSignature("method hudson.model.AbstractBuild getWorkspace");
+        ScriptApproval.get().approveSignature("method hudson.FilePath child java.lang.String");
+        FreeStyleProject p = j.createFreeStyleProject();
+        p.setAssignedNode(j.createOnlineSlave());
+        p.getBuildersList().add(new TestBuilder() {
+            @Override
+            public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener)
+                    throws IOException, InterruptedException {
+                build.getWorkspace().child("report.txt").write("tests: 12 run\ntests: 3 failed\n", "UTF-8");
+                return true;
+            }
+        });
+        p.getPublishersList()
+                .add(new GroovyPostbuildRecorder(
+                        new SecureGroovyScript(
+                                "def m = manager.getMatcher(manager.build.workspace.child('report.txt'),"
+                                        + " 'tests: (\\\\d+) failed'); manager.addShortText(m.group(1) + ' failed');",
+                                true, // sandbox
+                                Collections.emptyList()),
+                        2, // behavior
+                        false // runForMatrixParent
+                        ));
+
+        FreeStyleBuild b = j.buildAndAssertSuccess(p);
+        assertEquals("3 failed", b.getAction(BadgeAction.class).getText());
+    }
+
     @Test
     @Issue("JENKINS-54262")
     void testRunWithNonAdministrator() throws Exception {
@@ -0,0 +1,69 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class KeywordMatcherTest {
+
+    private static KeywordMatcher.Result scan(List<String> keywords, String log) throws Exception {
+        return KeywordMatcher.of(keywords).scan(new BufferedReader(new StringReader(log)));
+    }
+
+    @Test
+    void countsOverlappingKeywords() throws Exception {
+        KeywordMatcher.Result result = scan(List.of("he", "she", "his", "hers", "absent"), "ushers\nshe said his\n");
+        assertEquals(Map.of("he", 2, "she", 2, "his", 1, "hers", 1, "absent", 0), result.getCounts());
+    }
+
+    @Test
+    void reportsFirstLines() throws Exception {
+        KeywordMatcher.Result result = scan(List.of("ERR-1", "ERR-2", "ERR-3"), "ok\nfoo ERR-2\nERR-1 and ERR-2\n");
+        assertEquals(Map.of("ERR-1", "ERR-1 and ERR-2", "ERR-2", "foo ERR-2"), result.getFirstLines());
+    }
+
+    @Test
+    void doesNotMatchAcrossLines() throws Exception {
+        assertEquals(Map.of("ab", 0), scan(List.of("ab"), "a\nb\n").getCounts());
+    }
+
+    @Test
+    void sharesMatchers() {
+        assertSame(KeywordMatcher.of(List.of("a", "b")), KeywordMatcher.of(List.of("a", "b", "a")));
+    }
+
+    @Test
+    void rejectsEmptyKeywords() {
+        assertThrows(IllegalArgumentException.class, () -> KeywordMatcher.of(List.of("a", "")));
+    }
+}
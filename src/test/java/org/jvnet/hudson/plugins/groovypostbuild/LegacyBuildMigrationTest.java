@@ -0,0 +1,75 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.jenkinsci.plugins.badge.action.BadgeSummaryAction;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class LegacyBuildMigrationTest {
+
+    @Test
+    void migratesLegacyBuilds(JenkinsRule j) throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject("legacy");
+        FreeStyleBuild legacy = j.buildAndAssertSuccess(p);
+        j.buildAndAssertSuccess(p);
+        File xml = new File(legacy.getRootDir(), "build.xml");
+        String content = Files.readString(xml.toPath(), StandardCharsets.UTF_8);
+        Files.writeString(
+                xml.toPath(),
+                content.replaceFirst(
+                        "<actions>",
+                        "<actions><org.jvnet.hudson.plugins.groovypostbuild.GroovyPostbuildSummaryAction>"
+                                + "<iconPath>star.png</iconPath><textBuilder>legacy summary</textBuilder>"
+                                + "</org.jvnet.hudson.plugins.groovypostbuild.GroovyPostbuildSummaryAction>"),
+                StandardCharsets.UTF_8);
+        assertTrue(LegacyBuildMigration.isLegacy(xml));
+
+        j.jenkins.reload();
+        LegacyBuildMigration.get().run();
+
+        assertThat(
+                LegacyBuildMigration.get().getStatus(),
+                Matchers.containsString("found 1 legacy builds, migrated 1, skipped 0 running"));
+        assertTrue(LegacyBuildMigration.markerFile().isFile());
+        assertFalse(LegacyBuildMigration.isLegacy(xml));
+        p = j.jenkins.getItemByFullName("legacy", FreeStyleProject.class);
+        assertEquals(
+                "legacy summary",
+                p.getBuildByNumber(1).getAction(BadgeSummaryAction.class).getText());
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import hudson.model.FreeStyleProject;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class LegacyConfigMigrationTest {
+
+    @Test
+    void savesLegacyConfigsOnce(JenkinsRule j) throws Exception {
+        String xml = """
+                <?xml version='1.1' encoding='UTF-8'?>
+                <project>
+                  <builders/>
+                  <publishers>
+                    <org.jvnet.hudson.plugins.groovypostbuild.GroovyPostbuildRecorder>
+                      <groovyScript>manager.addShortText('legacy')</groovyScript>
+                      <behavior>0</behavior>
+                      <runForMatrixParent>false</runForMatrixParent>
+                    </org.jvnet.hudson.plugins.groovypostbuild.GroovyPostbuildRecorder>
+                  </publishers>
+                </project>
+                """;
+        FreeStyleProject p = (FreeStyleProject) j.jenkins.createProjectFromXML(
+                "legacy", new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+        j.createFreeStyleProject("current");
+
+        assertEquals(1, LegacyConfigMigration.run());
+        assertEquals(0, LegacyConfigMigration.run());
+
+        String saved = p.getConfigFile().asString();
+        assertThat(saved, Matchers.not(Matchers.containsString("<groovyScript>")));
+        assertThat(saved, Matchers.containsString("<script>manager.addShortText("));
+        assertFalse(p.getPublishersList().get(GroovyPostbuildRecorder.class).isLegacy());
+    }
+
+    @Test
+    void savesLegacyConfigsAfterCurrentRecorder(JenkinsRule j) throws Exception {
+        String xml = """
+                <?xml version='1.1' encoding='UTF-8'?>
+                <project>
+                  <builders/>
+                  <publishers>
+                    <org.jvnet.hudson.plugins.groovypostbuild.GroovyPostbuildRecorder>
+                      <script>
+                        <script>manager.addShortText('current')</script>
+                        <sandbox>true</sandbox>
+                      </script>
+                      <behavior>0</behavior>
+                      <runForMatrixParent>false</runForMatrixParent>
+                    </org.jvnet.hudson.plugins.groovypostbuild.GroovyPostbuildRecorder>
+                    <org.jvnet.hudson.plugins.groovypostbuild.GroovyPostbuildRecorder>
+                      <groovyScript>manager.addShortText('legacy')</groovyScript>
+                      <behavior>0</behavior>
+                      <runForMatrixParent>false</runForMatrixParent>
+                    </org.jvnet.hudson.plugins.groovypostbuild.GroovyPostbuildRecorder>
+                  </publishers>
+                </project>
+                """;
+        FreeStyleProject p = (FreeStyleProject)
+                j.jenkins.createProjectFromXML("mixed", new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, LegacyConfigMigration.run());
+        assertEquals(0, LegacyConfigMigration.run());
+
+        assertThat(p.getConfigFile().asString(), Matchers.not(Matchers.containsString("<groovyScript>")));
+        for (GroovyPostbuildRecorder recorder : p.getPublishersList().getAll(GroovyPostbuildRecorder.class)) {
+            assertFalse(recorder.isLegacy());
+        }
+    }
+}
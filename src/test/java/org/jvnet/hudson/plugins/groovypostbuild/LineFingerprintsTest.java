@@ -0,0 +1,120 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LineFingerprintsTest {
+
+    private static final Pattern ERROR = Pattern.compile("ERROR.*");
+
+    @TempDir
+    File tmp;
+
+    private static BufferedReader reader(String... lines) {
+        return new BufferedReader(new StringReader(String.join("\n", lines)));
+    }
+
+    @Test
+    void findsNewLines() throws Exception {
+        LineFingerprints reference = LineFingerprints.scan(
+                reader("ERROR: timeout after 30 s", "ok", "ERROR: /tmp/a/b.txt missing", "ERROR: timeout after 31 s"),
+                ERROR);
+        assertEquals(2, reference.size());
+        assertEquals(
+                Arrays.asList("ERROR: connection refused on port 8080"),
+                reference.newLines(
+                        reader(
+                                "ERROR: timeout after 45 s",
+                                "ERROR: connection refused on port 8080",
+                                "ERROR: /var/c/d.txt missing",
+                                "ERROR: connection refused on port 8081",
+                                "connection refused"),
+                        ERROR));
+    }
+
+    @Test
+    void reportsAllLinesWithoutReference() throws Exception {
+        assertEquals(
+                Arrays.asList("ERROR one", "ERROR two"),
+                LineFingerprints.EMPTY.newLines(reader("ERROR one", "ERROR two", "ERROR one"), ERROR));
+    }
+
+    @Test
+    void savesHashes() throws Exception {
+        File f = new File(tmp, "lines.bin");
+        assertNull(LineFingerprints.read(f));
+        LineFingerprints.scan(reader("ERROR one", "ERROR two"), ERROR).write(f);
+        LineFingerprints read = LineFingerprints.read(f);
+        assertEquals(2, read.size());
+        assertTrue(read.contains("ERROR two"));
+        assertEquals(1, tmp.list().length);
+    }
+
+    @Test
+    void deletesTruncatedFile() throws Exception {
+        File f = new File(tmp, "lines.bin");
+        LineFingerprints.scan(reader("ERROR one", "ERROR two"), ERROR).write(f);
+        byte[] content = Files.readAllBytes(f.toPath());
+        Files.write(f.toPath(), Arrays.copyOf(content, content.length - 3));
+        assertNull(LineFingerprints.read(f));
+        assertFalse(f.exists());
+    }
+
+    @Test
+    void deletesFileOfAnotherNormalizationVersion() throws Exception {
+        File f = new File(tmp, "lines.bin");
+        LineFingerprints.scan(reader("ERROR one", "ERROR two"), ERROR).write(f);
+        byte[] content = Files.readAllBytes(f.toPath());
+        ByteBuffer.wrap(content).putInt(0, FailureSignatures.NORMALIZATION_VERSION + 1);
+        Files.write(f.toPath(), content);
+        assertNull(LineFingerprints.read(f));
+        assertFalse(f.exists());
+    }
+
+    @Test
+    void stopsOverBudget() {
+        assertThrows(
+                ScanBudget.ExceededException.class,
+                () -> LineFingerprints.scan(reader("ERROR one", "ERROR two"), ERROR, ScanBudget.start(5, 0, 0)));
+        assertThrows(
+                ScanBudget.ExceededException.class,
+                () -> LineFingerprints.EMPTY.newLines(
+                        reader("ERROR one", "ERROR two"), ERROR, ScanBudget.start(5, 0, 0)));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LiveLogFilterTest {
+
+    @Test
+    void matchesPatternsThatCannotBeCombinedOnTheirOwn() {
+        LiveLogFilter.Hits hits =
+                new LiveLogFilter.Hits(List.of("(b)\\1", "x.*", "a\\Q", "never"), StandardCharsets.UTF_8);
+        byte[] log = "zz\nbb\nx1\na\n".getBytes(StandardCharsets.UTF_8);
+        hits.feed(log, 0, log.length);
+
+        assertTrue(hits.isTracked("(b)\\1"));
+        assertEquals("bb", hits.firstMatch("(b)\\1").group());
+        assertEquals("x1", hits.firstMatch("x.*").group());
+        assertEquals("a", hits.firstMatch("a\\Q").group());
+        assertTrue(hits.isTracked("never"));
+        assertNull(hits.firstMatch("never"));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+class LogExcerptsTest {
+
+    private static final String LOG = String.join(
+            "\n", "one", "two", "ERROR first", "three", "four", "five", "six", "ERROR second", "seven", "ERROR third");
+
+    private static List<String> scan(String log, int before, int after, int maxMatches) throws Exception {
+        return LogExcerpts.scan(
+                new BufferedReader(new StringReader(log)), Pattern.compile("ERROR.*"), before, after, maxMatches);
+    }
+
+    @Test
+    void extractsContext() throws Exception {
+        assertEquals(
+                Arrays.asList("two\nERROR first\nthree", "six\nERROR second\nseven\nERROR third"), scan(LOG, 1, 1, 10));
+    }
+
+    @Test
+    void mergesOverlappingContext() throws Exception {
+        assertEquals(Arrays.asList(LOG), scan(LOG, 2, 2, 10));
+        assertEquals(
+                Arrays.asList("one\ntwo\nERROR first\nthree", "five\nsix\nERROR second\nseven\nERROR third"),
+                scan(LOG, 2, 1, 10));
+    }
+
+    @Test
+    void stopsOverBudget() {
+        assertThrows(
+                ScanBudget.ExceededException.class,
+                () -> LogExcerpts.scan(
+                        new BufferedReader(new StringReader(LOG)),
+                        Pattern.compile("ERROR.*"),
+                        1,
+                        1,
+                        10,
+                        ScanBudget.start(10, 0, 0)));
+    }
+
+    @Test
+    void startsAtFirstLine() throws Exception {
+        assertEquals(Arrays.asList("one\ntwo\nERROR first"), scan(LOG, 5, 0, 1));
+    }
+
+    @Test
+    void stopsAfterMaxMatches() throws Exception {
+        assertEquals(Arrays.asList("ERROR first\nthree\nfour", "ERROR second\nseven\nERROR third"), scan(LOG, 0, 2, 2));
+    }
+
+    @Test
+    void truncatesLongLines() throws Exception {
+        String excerpt = scan("ERROR " + "x".repeat(5000), 0, 0, 1).get(0);
+        assertEquals(LogExcerpts.MAX_LINE_LENGTH + 3, excerpt.length());
+    }
+
+    @Test
+    void rejectsLargeContext() {
+        assertThrows(IllegalArgumentException.class, () -> scan(LOG, LogExcerpts.MAX_CONTEXT_LINES + 1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> scan(LOG, 0, 0, 0));
+    }
+}
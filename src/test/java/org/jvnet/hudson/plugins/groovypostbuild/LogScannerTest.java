@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LogScannerTest {
+
+    @TempDir
+    File tmp;
+
+    private File log;
+
+    private long threshold;
+    private long minSegmentLength;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        threshold = LogScanner.PARALLEL_THRESHOLD;
+        minSegmentLength = LogScanner.MIN_SEGMENT_LENGTH;
+        LogScanner.PARALLEL_THRESHOLD = 0;
+        LogScanner.MIN_SEGMENT_LENGTH = 1024;
+
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            text.append("line ").append(i).append(i % 7 == 0 ? " ünïcode" : "").append('\n');
+        }
+        log = new File(tmp, "log");
+        Files.writeString(log.toPath(), text, StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        LogScanner.PARALLEL_THRESHOLD = threshold;
+        LogScanner.MIN_SEGMENT_LENGTH = minSegmentLength;
+    }
+
+    private Matcher firstMatch(String regexp) throws Exception {
+        return LogScanner.firstMatch(log, StandardCharsets.UTF_8, Pattern.compile(regexp));
+    }
+
+    @Test
+    void findsFirstMatch() throws Exception {
+        assertEquals("line 4000", firstMatch("line (4\\d\\d\\d)").group());
+        assertEquals("49", firstMatch("line (\\d+)9 ünïcode").group(1) + "9");
+    }
+
+    @Test
+    void findsFirstAndLastLines() throws Exception {
+        assertEquals("line 0 ünïcode", firstMatch("line 0 .*").group());
+        assertEquals("line 99999", firstMatch("line 99999").group());
+    }
+
+    @Test
+    void returnsNullWithoutMatch() throws Exception {
+        assertNull(firstMatch("nope"));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PostbuildTimingActionTest {
+
+    private int maxPhases;
+
+    @BeforeEach
+    void setUp() {
+        maxPhases = PostbuildTimingAction.MAX_PHASES;
+        PostbuildTimingAction.MAX_PHASES = 3;
+    }
+
+    @AfterEach
+    void tearDown() {
+        PostbuildTimingAction.MAX_PHASES = maxPhases;
+    }
+
+    @Test
+    void addsUpPhasesByKindPastTheLimit() {
+        PostbuildTimingAction timing = new PostbuildTimingAction();
+        for (String phase : List.of(
+                "environment",
+                "logContains(\"a\")",
+                "logContains(\"b\")",
+                "logContains(\"c\")",
+                "logContains(\"d\")",
+                "save job #1",
+                "logContains(\"a\")")) {
+            timing.time(phase).close();
+        }
+
+        List<String> names = new ArrayList<>();
+        List<Integer> counts = new ArrayList<>();
+        for (PostbuildTimingAction.Phase phase : timing.getPhases()) {
+            names.add(phase.getName());
+            counts.add(phase.getCount());
+        }
+        assertEquals(
+                List.of(
+                        "environment",
+                        "logContains(\"a\")",
+                        "logContains(\"b\")",
+                        "logContains (others)",
+                        "save (others)"),
+                names);
+        assertEquals(List.of(1, 2, 1, 2, 1), counts);
+
+        PostbuildTimingAction other = new PostbuildTimingAction();
+        other.time("logContains(\"e\")").close();
+        timing.addAll(other);
+        assertEquals(3, timing.getPhases().get(3).getCount());
+    }
+
+    @Test
+    void totalDoesNotAddUpNestedPhases() {
+        PostbuildTimingAction timing = new PostbuildTimingAction();
+        try (PostbuildTimingAction.Timer evaluation = timing.time("evaluation")) {
+            timing.time("logContains(\"a\")").close();
+        }
+        timing.addTotal(5_000_000);
+        assertEquals(5.0, timing.getTotalMillis());
+
+        PostbuildTimingAction other = new PostbuildTimingAction();
+        other.addTotal(2_000_000);
+        timing.addAll(other);
+        assertEquals(7.0, timing.getTotalMillis());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.InterruptedIOException;
+import java.io.StringReader;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ScanBudgetTest {
+
+    private long maxLength;
+    private long maxMillis;
+    private long maxLineMillis;
+
+    @BeforeEach
+    void setUp() {
+        maxLength = ScanBudget.MAX_LENGTH;
+        maxMillis = ScanBudget.MAX_MILLIS;
+        maxLineMillis = ScanBudget.MAX_LINE_MILLIS;
+    }
+
+    @AfterEach
+    void tearDown() {
+        ScanBudget.MAX_LENGTH = maxLength;
+        ScanBudget.MAX_MILLIS = maxMillis;
+        ScanBudget.MAX_LINE_MILLIS = maxLineMillis;
+        Thread.interrupted();
+    }
+
+    private static Matcher firstMatch(String log, String regexp) throws Exception {
+        return LogScanner.firstMatch(new BufferedReader(new StringReader(log)), Pattern.compile(regexp));
+    }
+
+    @Test
+    void stopsCatastrophicBacktracking() {
+        ScanBudget.MAX_LINE_MILLIS = 100;
+        ScanBudget.ExceededException e = assertThrows(
+                ScanBudget.ExceededException.class, () -> firstMatch("ok\n" + "a".repeat(40) + "!\n", "(.*a){12}b"));
+        assertTrue(e.getMessage().contains("matching a line"), e.getMessage());
+    }
+
+    @Test
+    void stopsAfterMaxLength() {
+        ScanBudget.MAX_LENGTH = 10;
+        assertThrows(ScanBudget.ExceededException.class, () -> firstMatch("line1\nline2\nline3\n", "line3"));
+    }
+
+    @Test
+    void stopsWhenInterrupted() {
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedIOException.class, () -> firstMatch("line1\n", "line2"));
+        assertTrue(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    void matcherIsUsableAfterScan() throws Exception {
+        ScanBudget.MAX_LINE_MILLIS = 1;
+        Matcher m = firstMatch("x\nfoo 42\n", "foo (\\d+)");
+        assertEquals("42", m.group(1));
+        assertEquals("foo 42", m.group());
+        assertTrue(m.reset().find());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import org.jenkinsci.plugins.scriptsecurity.scripts.ClasspathEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ScriptClassLoaderCacheTest {
+
+    @TempDir
+    private File tmp;
+
+    private static void writeJar(File jar, String content) throws IOException {
+        try (OutputStream out = Files.newOutputStream(jar.toPath());
+                JarOutputStream jarOut = new JarOutputStream(out)) {
+            jarOut.putNextEntry(new ZipEntry("content.txt"));
+            jarOut.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String content(ClassLoader loader) throws IOException {
+        try (InputStream in = loader.getResourceAsStream("content.txt")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void sharesLoaderUntilJarChanges() throws Exception {
+        File jar = new File(tmp, "lib.jar");
+        writeJar(jar, "one");
+        List<ClasspathEntry> classpath = List.of(new ClasspathEntry(jar.getPath()));
+        ClassLoader parent = getClass().getClassLoader();
+        ClassLoader first;
+        try (ScriptClassLoaderCache.Lease a = ScriptClassLoaderCache.acquire(classpath, parent);
+                ScriptClassLoaderCache.Lease b = ScriptClassLoaderCache.acquire(classpath, parent)) {
+            assertNotNull(a);
+            assertNotNull(b);
+            first = a.getLoader();
+            assertSame(first, b.getLoader());
+        }
+        try (ScriptClassLoaderCache.Lease c = ScriptClassLoaderCache.acquire(classpath, parent)) {
+            // an idle loader is reused by the next build
+            assertSame(first, c.getLoader());
+            assertEquals("one", content(c.getLoader()));
+        }
+
+        writeJar(jar, "two");
+        jar.setLastModified(jar.lastModified() + 2000);
+        try (ScriptClassLoaderCache.Lease d = ScriptClassLoaderCache.acquire(classpath, parent)) {
+            assertNotSame(first, d.getLoader());
+            assertEquals("two", content(d.getLoader()));
+        }
+    }
+
+    @Test
+    void directoriesAreNotShared() throws Exception {
+        File dir = new File(tmp, "classes");
+        dir.mkdirs();
+        assertNull(ScriptClassLoaderCache.acquire(
+                List.of(new ClasspathEntry(dir.getPath())), getClass().getClassLoader()));
+    }
+}
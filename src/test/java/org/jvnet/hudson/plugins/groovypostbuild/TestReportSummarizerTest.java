@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, Jenkins project contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jvnet.hudson.plugins.groovypostbuild;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestReportSummarizerTest {
+
+    @TempDir
+    File tmp;
+
+    private void write(String path, String xml) throws Exception {
+        File f = new File(tmp, path);
+        f.getParentFile().mkdirs();
+        Files.writeString(f.toPath(), xml, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void summarizesJUnitAndTestNGReports() throws Exception {
+        write("a/target/surefire-reports/TEST-Foo.xml", """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="Foo" tests="4">
+                  <testcase classname="Foo" name="fast" time="0.1"/>
+                  <testcase classname="Foo" name="slow" time="12.5"/>
+                  <testcase classname="Foo" name="broken" time="1"><failure message="boom">trace</failure></testcase>
+                  <testcase classname="Foo" name="ignored" time="0"><skipped/></testcase>
+                </testsuite>
+                """);
+        write("b/testng-results.xml", """
+                <testng-results>
+                  <suite name="s"><test name="t"><class name="Bar">
+                    <test-method status="PASS" name="setUp" is-config="true" duration-ms="5000"/>
+                    <test-method status="FAIL" name="crash" duration-ms="3000"/>
+                    <test-method status="PASS" name="ok" duration-ms="20"/>
+                  </class></test></suite>
+                </testng-results>
+                """);
+        write("c/ignored.txt", "not a report");
+        write("c/pom.xml", """
+                <project><testcase classname="NotATest" name="x"/></project>
+                """);
+
+        Map<String, Object> summary = new TestReportSummarizer("**/*.xml", 2).invoke(tmp, null);
+
+        assertEquals(2, summary.get("files"));
+        assertEquals(6, summary.get("tests"));
+        assertEquals(2, summary.get("failures"));
+        assertEquals(0, summary.get("errors"));
+        assertEquals(1, summary.get("skipped"));
+        assertEquals(List.of("Foo.broken", "Bar.crash"), summary.get("failing"));
+        assertEquals(
+                List.of(Map.of("name", "Foo.slow", "time", 12.5), Map.of("name", "Bar.crash", "time", 3.0)),
+                summary.get("slowest"));
+    }
+
+    @Test
+    void limitsReportedNames() throws Exception {
+        StringBuilder xml = new StringBuilder("<testsuite>");
+        for (int i = 0; i < 1000; i++) {
+            xml.append("<testcase classname=\"C\" name=\"t").append(i).append("\"><error/></testcase>");
+        }
+        write("TEST-C.xml", xml.append("</testsuite>").toString());
+
+        Map<String, Object> summary = new TestReportSummarizer("*.xml", 3).invoke(tmp, null);
+
+        assertEquals(1000, summary.get("errors"));
+        assertEquals(List.of("C.t0", "C.t1", "C.t2"), summary.get("failing"));
+    }
+}
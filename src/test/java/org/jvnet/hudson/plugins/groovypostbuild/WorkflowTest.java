@@ -26,7 +26,9 @@ package org.jvnet.hudson.plugins.groovypostbuild;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import com.jenkinsci.plugins.badge.action.BadgeAction;
+import hudson.model.Result;
 import java.util.Collections;
+import java.util.List;
 import java.util.logging.Level;
 import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
 import org.jenkinsci.plugins.workflow.job.WorkflowJob;
@@ -59,6 +61,27 @@ class WorkflowTest {
         assertEquals("stuff is broken", b.getAction(BadgeAction.class).getText());
     }
 
+    @Test
+    void usingManagerLogContainsInStage() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p-stage");
+        p.setDefinition(new CpsFlowDefinition(
+                String.join(
+                        "\n",
+                        "stage('Build') { echo 'compiling' }",
+                        "stage('Integration') { echo 'ERROR: database down' }",
+                        "if (manager.logContains('.*ERROR.*', stage: 'Integration')) {",
+                        "  manager.addShortText('integration failed')",
+                        "}",
+                        "if (manager.logContains('.*ERROR.*', stage: 'Build')) {",
+                        "  manager.addShortText('build failed')",
+                        "}"),
+                true));
+        WorkflowRun b = j.assertBuildStatusSuccess(p.scheduleBuild2(0));
+        List<BadgeAction> badges = b.getActions(BadgeAction.class);
+        assertEquals(1, badges.size());
+        assertEquals("integration failed", badges.get(0).getText());
+    }
+
     @Test
     void usingManagerAddBadge2Args() throws Exception {
         WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p-addBadge2");
@@ -83,6 +106,13 @@ class WorkflowTest {
         assertEquals("stuff is broken", b.getAction(BadgeAction.class).getText());
     }
 
+    @Test
+    void parallelRejectsPipelineClosures() throws Exception {
+        WorkflowJob p = j.jenkins.createProject(WorkflowJob.class, "p-parallel");
+        p.setDefinition(new CpsFlowDefinition("manager.parallel([1, 2]) { it * 2 }", true));
+        j.assertLogContains("use the parallel step instead", j.assertBuildStatus(Result.FAILURE, p.scheduleBuild2(0)));
+    }
+
     @Issue("JENKINS-54128")
     @Test
     void logContains() throws Exception {